@@ -0,0 +1,15 @@
+package com.club.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注接口所属的并发分类；未标注时 GET 归为 INTERACTIVE_READ，其余归为 WRITE
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+    EndpointClass value();
+}
@@ -45,5 +45,8 @@ public class ApiResponse<T> {
     public static final int UNAUTHORIZED = 401; //未授权
     public static final int FORBIDDEN = 403;    //拒绝访问
     public static final int NOT_FOUND = 404;    //not found
+    public static final int CONFLICT = 409;     //版本冲突
+    public static final int TOO_MANY_REQUESTS = 429;        //请求过多
     public static final int INTERNAL_SERVER_ERROR = 500;    //服务器错误
+    public static final int SERVICE_UNAVAILABLE = 503;      //服务繁忙
 }
\ No newline at end of file
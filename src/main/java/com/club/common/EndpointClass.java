@@ -0,0 +1,22 @@
+package com.club.common;
+
+/**
+ * 接口分类，每类使用独立的并发许可池（舱壁隔离）
+ */
+public enum EndpointClass {
+    INTERACTIVE_READ("interactive-read"), // 详情、快速搜索等轻量查询
+    HEAVY_READ("heavy-read"),             // 列表分页、统计、导出
+    WRITE("write"),                       // 单条增删改
+    BULK("bulk"),                         // 导入、批量创建、批量操作
+    NONE("none");                         // 不限流（如 SSE 长连接）
+
+    private final String key;
+
+    EndpointClass(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
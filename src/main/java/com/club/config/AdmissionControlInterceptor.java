@@ -0,0 +1,91 @@
+package com.club.config;
+
+import com.club.common.Admission;
+import com.club.common.ApiResponse;
+import com.club.common.EndpointClass;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * 准入控制拦截器
+ * 按接口分类获取舱壁许可，拿不到就快速失败（排队已满 429，排队超时 503），并带上 Retry-After，
+ * 避免少数重接口把 10 个数据库连接占满后所有请求一起卡 30 秒。
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".PERMIT";
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!enabled || !(handler instanceof HandlerMethod)
+                || request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        EndpointClass endpointClass = classify(request, (HandlerMethod) handler);
+        if (endpointClass == EndpointClass.NONE) {
+            return true;
+        }
+
+        Bulkhead bulkhead = bulkheadRegistry.get(endpointClass);
+        Bulkhead.Result result = bulkhead.tryEnter();
+        if (result == Bulkhead.Result.ADMITTED) {
+            request.setAttribute(PERMIT_ATTRIBUTE, bulkhead);
+            return true;
+        }
+
+        bulkheadRegistry.recordRejected(endpointClass, result);
+        int status = result == Bulkhead.Result.QUEUE_FULL
+                ? ApiResponse.TOO_MANY_REQUESTS : ApiResponse.SERVICE_UNAVAILABLE;
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(bulkhead.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(status, "服务繁忙，请稍后重试"));
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        release(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // 异步请求不占用许可（连接已交给异步线程）
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof Bulkhead) {
+            request.setAttribute(PERMIT_ATTRIBUTE, Boolean.FALSE);
+            ((Bulkhead) permit).exit();
+        }
+    }
+
+    private EndpointClass classify(HttpServletRequest request, HandlerMethod handlerMethod) {
+        Admission admission = handlerMethod.getMethodAnnotation(Admission.class);
+        if (admission != null) {
+            return admission.value();
+        }
+        return "GET".equals(request.getMethod()) ? EndpointClass.INTERACTIVE_READ : EndpointClass.WRITE;
+    }
+}
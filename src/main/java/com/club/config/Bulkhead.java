@@ -0,0 +1,69 @@
+package com.club.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个分类的并发舱壁：limit 个许可 + 最多 maxQueue 个排队者，排队最多等待 maxWaitMs
+ */
+public class Bulkhead {
+
+    public enum Result { ADMITTED, QUEUE_FULL, TIMEOUT }
+
+    private final String name;
+    private final int limit;
+    private final int maxQueue;
+    private final long maxWaitMs;
+    private final int retryAfterSeconds;
+    private final Semaphore semaphore;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public Bulkhead(String name, int limit, int maxQueue, long maxWaitMs, int retryAfterSeconds) {
+        this.name = name;
+        this.limit = limit;
+        this.maxQueue = maxQueue;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.semaphore = new Semaphore(limit);
+    }
+
+    public Result tryEnter() throws InterruptedException {
+        if (semaphore.tryAcquire()) {
+            return Result.ADMITTED;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            return Result.QUEUE_FULL;
+        }
+        try {
+            return semaphore.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS) ? Result.ADMITTED : Result.TIMEOUT;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void exit() {
+        semaphore.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getActive() {
+        return limit - semaphore.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,76 @@
+package com.club.config;
+
+import com.club.common.EndpointClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 各接口分类的舱壁，配置项为 app.admission.{分类}.limit / queue / max-wait-ms / retry-after-seconds
+ * 当前并发数、排队数、拒绝次数以 club.admission.* 指标暴露
+ * 各类上限之和加上 app.admission.reserved-connections 应不超过主库连接池，否则启动时告警
+ */
+@Component
+@Slf4j
+public class BulkheadRegistry {
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedQueueFull = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedTimeout = new EnumMap<>(EndpointClass.class);
+
+    public BulkheadRegistry(Environment environment, MeterRegistry meterRegistry) {
+        register(environment, meterRegistry, EndpointClass.INTERACTIVE_READ, 4, 100, 1000, 1);
+        register(environment, meterRegistry, EndpointClass.HEAVY_READ, 1, 4, 2000, 5);
+        register(environment, meterRegistry, EndpointClass.WRITE, 2, 20, 2000, 2);
+        register(environment, meterRegistry, EndpointClass.BULK, 1, 0, 0, 30);
+        checkPoolSize(environment);
+    }
+
+    private void checkPoolSize(Environment environment) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int reserved = environment.getProperty("app.admission.reserved-connections", Integer.class, 2);
+        int permits = totalPermits();
+        if (permits + reserved > poolSize) {
+            log.warn("准入舱壁并发上限之和 {} 加预留连接 {} 超过连接池大小 {}，请求会在连接池中排队",
+                    permits, reserved, poolSize);
+        }
+    }
+
+    public int totalPermits() {
+        return bulkheads.values().stream().mapToInt(Bulkhead::getLimit).sum();
+    }
+
+    private void register(Environment environment, MeterRegistry meterRegistry, EndpointClass endpointClass,
+                          int limit, int queue, long maxWaitMs, int retryAfterSeconds) {
+        String prefix = "app.admission." + endpointClass.getKey() + ".";
+        Bulkhead bulkhead = new Bulkhead(endpointClass.getKey(),
+                environment.getProperty(prefix + "limit", Integer.class, limit),
+                environment.getProperty(prefix + "queue", Integer.class, queue),
+                environment.getProperty(prefix + "max-wait-ms", Long.class, maxWaitMs),
+                environment.getProperty(prefix + "retry-after-seconds", Integer.class, retryAfterSeconds));
+        bulkheads.put(endpointClass, bulkhead);
+
+        Gauge.builder("club.admission.active", bulkhead, Bulkhead::getActive)
+                .tag("class", endpointClass.getKey()).register(meterRegistry);
+        Gauge.builder("club.admission.queued", bulkhead, Bulkhead::getWaiting)
+                .tag("class", endpointClass.getKey()).register(meterRegistry);
+        rejectedQueueFull.put(endpointClass, Counter.builder("club.admission.rejected")
+                .tag("class", endpointClass.getKey()).tag("reason", "queue_full").register(meterRegistry));
+        rejectedTimeout.put(endpointClass, Counter.builder("club.admission.rejected")
+                .tag("class", endpointClass.getKey()).tag("reason", "timeout").register(meterRegistry));
+    }
+
+    public Bulkhead get(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    public void recordRejected(EndpointClass endpointClass, Bulkhead.Result result) {
+        (result == Bulkhead.Result.QUEUE_FULL ? rejectedQueueFull : rejectedTimeout).get(endpointClass).increment();
+    }
+}
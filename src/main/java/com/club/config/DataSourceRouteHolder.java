@@ -0,0 +1,42 @@
+package com.club.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的数据源路由标记
+ * 用于写后读一致性：会话刚写过数据时，本次请求的只读查询也走主库
+ */
+public final class DataSourceRouteHolder {
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouteHolder() {
+    }
+
+    public static void forcePrimary() {
+        FORCE_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isForcePrimary() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+
+    public static void clear() {
+        FORCE_PRIMARY.remove();
+    }
+
+    /**
+     * 在主库上执行（嵌套调用时保留外层状态）
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = isForcePrimary();
+        forcePrimary();
+        try {
+            return action.get();
+        } finally {
+            if (!previous) {
+                clear();
+            }
+        }
+    }
+}
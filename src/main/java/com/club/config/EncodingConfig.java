@@ -0,0 +1,49 @@
+package com.club.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * 响应编码协商
+ * Accept 为 application/x-jackson-smile 或 application/cbor 时返回二进制编码，其余仍为 JSON；
+ * 三种格式共用 Spring Boot 的 Jackson 配置（日期格式、模块等）。
+ * 平台线程下沿用 Jackson 默认的 ThreadLocal 缓冲区回收；虚拟线程模式下每个请求一个新线程，ThreadLocal 无法复用，
+ * 改用容量有限的共享回收池，池满时多余的缓冲区直接丢弃，不会随并发无限增长。
+ * 压缩由 Tomcat 按 server.compression.* 处理（gzip，超过阈值才压缩）。
+ */
+@Configuration
+public class EncodingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.threads.virtual", name = "enabled", havingValue = "true")
+    public Jackson2ObjectMapperBuilderCustomizer pooledBufferCustomizer(
+            @Value("${app.threads.virtual.jackson-pool-size:100}") int poolSize) {
+        return builder -> builder.postConfigurer(objectMapper -> usePooledBuffers(objectMapper, poolSize));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    static void usePooledBuffers(ObjectMapper objectMapper, int poolSize) {
+        JsonFactory factory = objectMapper.getFactory();
+        factory.setRecyclerPool(JsonRecyclerPools.newBoundedPool(poolSize));
+    }
+}
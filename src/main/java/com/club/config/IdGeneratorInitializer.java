@@ -0,0 +1,48 @@
+package com.club.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ID 分配表初始化
+ * 从 IDENTITY 自增迁移到表分配器时，把 id_generator 的值推到现有最大 ID，
+ * 避免新分配的 ID 与历史数据冲突。只会把值往大调，重复执行是安全的。
+ * 注意：Hibernate 默认 stored_last_used=true，next_val 列里存的是"已用过的最大值"，下一段从它 +1 开始。
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdGeneratorInitializer {
+
+    // 需要与实体上 @TableGenerator 的 pkColumnValue 保持一致
+    private static final List<String> TABLES = List.of("club", "activity");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        for (String table : TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long lastUsed = maxId != null ? maxId : 0;
+
+            int updated = jdbcTemplate.update(
+                    "UPDATE id_generator SET next_val = ? WHERE seq_name = ? AND next_val < ?",
+                    lastUsed, table, lastUsed);
+            if (updated == 0) {
+                Integer exists = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM id_generator WHERE seq_name = ?", Integer.class, table);
+                if (exists == null || exists == 0) {
+                    jdbcTemplate.update("INSERT INTO id_generator (seq_name, next_val) VALUES (?, ?)", table, lastUsed);
+                }
+            }
+            log.debug("ID 分配表 {} 已校准，新 ID 将大于 {}", table, lastUsed);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.club.config;
+
+import com.club.service.QueryShapeRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 查询形状诊断端点：/actuator/queryshapes
+ * 汇总应用侧的形状命中率、Hibernate 查询计划缓存统计，以及 MySQL 预编译语句计数
+ */
+@Component
+@Endpoint(id = "queryshapes")
+@RequiredArgsConstructor
+@Slf4j
+public class QueryShapeEndpoint {
+
+    private static final String STMT_STATUS_SQL = "SHOW GLOBAL STATUS WHERE Variable_name IN "
+            + "('Com_stmt_prepare', 'Com_stmt_execute', 'Com_stmt_reprepare', 'Com_stmt_close', 'Prepared_stmt_count')";
+
+    private final QueryShapeRegistry queryShapes;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @ReadOperation
+    public Map<String, Object> shapes() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("application", queryShapes.snapshot());
+        result.put("hibernate", hibernateStatistics());
+        result.put("mysql", preparedStatementStatus());
+        return result;
+    }
+
+    // 计划缓存计数只在 hibernate.generate_statistics=true 时才会累计
+    private Map<String, Object> hibernateStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("queryPlanCacheHitCount", statistics.getQueryPlanCacheHitCount());
+        result.put("queryPlanCacheMissCount", statistics.getQueryPlanCacheMissCount());
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    // 非 MySQL 数据库或没有权限时只返回错误信息，不影响其余统计
+    private Map<String, Object> preparedStatementStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        try {
+            jdbcTemplate.query(STMT_STATUS_SQL, rs -> {
+                result.put(rs.getString(1), rs.getString(2));
+            });
+        } catch (RuntimeException e) {
+            log.debug("读取预编译语句状态失败", e);
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+}
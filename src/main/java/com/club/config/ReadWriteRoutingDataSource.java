@@ -0,0 +1,26 @@
+package com.club.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 读写分离路由数据源
+ * 只读事务路由到从库，其余（写事务、无事务、强制主库）路由到主库
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String WRITE = "write";
+    public static final String READ = "read";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (DataSourceRouteHolder.isForcePrimary()) {
+            return WRITE;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
@@ -0,0 +1,61 @@
+package com.club.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * 写后读粘滞拦截器
+ * 写请求成功后下发一个短期 Cookie，Cookie 有效期内该客户端的读请求全部走主库，
+ * 避免从库复制延迟导致刚写入的数据读不到。使用 Cookie 而不是 HttpSession，多实例部署时无需共享会话。
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String STICKY_COOKIE = "RW_STICKY";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final int stickySeconds;
+
+    public ReadYourWritesInterceptor(int stickySeconds) {
+        this.stickySeconds = stickySeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (hasStickyCookie(request)) {
+            DataSourceRouteHolder.forcePrimary();
+        }
+        if (!READ_METHODS.contains(request.getMethod()) && stickySeconds > 0) {
+            // 响应提交前写入 Cookie，失败的写请求多粘几秒主库也无妨
+            Cookie cookie = new Cookie(STICKY_COOKIE, "1");
+            cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+            cookie.setMaxAge(stickySeconds);
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        DataSourceRouteHolder.clear();
+    }
+
+    private boolean hasStickyCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (STICKY_COOKIE.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.club.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 启动耗时记录：JVM 启动到就绪、JVM 启动到第一个请求完成，分别发布为
+ * club.startup.ready / club.startup.first-request 指标。
+ * app.startup.benchmark=true 时就绪后自己请求一次再退出，用于启动基准和 CDS 训练运行。
+ */
+@Component
+@Slf4j
+public class StartupTimings extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong firstRequestMs = new AtomicLong(-1);
+    private volatile int port;
+
+    @Value("${app.startup.benchmark:false}")
+    private boolean benchmark;
+
+    @Value("${app.startup.benchmark-path:/clubs/quick-search?keyword=a}")
+    private String benchmarkPath;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    public StartupTimings(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        TimeGauge.builder("club.startup.first-request", firstRequestMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        port = event.getWebServer().getPort();
+    }
+
+    // 排在启动预热之后：就绪时间包含预热，基准请求打在已预热的实例上
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onReady(ApplicationReadyEvent event) {
+        long readyMs = sinceJvmStart();
+        TimeGauge.builder("club.startup.ready", () -> readyMs, TimeUnit.MILLISECONDS).register(meterRegistry);
+        log.info("启动完成: 就绪 {} ms", readyMs);
+
+        if (benchmark) {
+            runBenchmark(event);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (firstRequestMs.get() < 0 && firstRequestMs.compareAndSet(-1, sinceJvmStart())) {
+                log.info("启动完成: 首个请求 {} ms ({})", firstRequestMs.get(), request.getRequestURI());
+            }
+        }
+    }
+
+    private void runBenchmark(ApplicationReadyEvent event) {
+        int exitCode = 0;
+        try {
+            HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + contextPath + benchmarkPath)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            log.info("启动基准: 就绪 {} ms, 首个请求 {} ms, 状态 {}",
+                    meterRegistry.get("club.startup.ready").timeGauge().value(TimeUnit.MILLISECONDS),
+                    firstRequestMs.get(), response.statusCode());
+        } catch (Exception e) {
+            log.error("启动基准请求失败", e);
+            exitCode = 1;
+        }
+        // 正常退出 JVM，CDS 训练运行（-XX:ArchiveClassesAtExit）在退出时写出归档
+        int code = exitCode;
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> code));
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
@@ -0,0 +1,182 @@
+package com.club.config;
+
+import com.club.dto.ClubQueryDTO;
+import com.club.dto.QuickSearchDTO;
+import com.club.entity.Club;
+import com.club.repository.ClubRepository;
+import com.club.service.ClubExcelCodec;
+import com.club.service.ClubService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动预热
+ * 在 ApplicationReadyEvent 的最后同步执行，完成之前就绪探针（/actuator/health/readiness）保持 REFUSING_TRAFFIC，
+ * 负载均衡不会把流量转到还没预热的实例。预热内容：
+ * 1. 参考数据与统计（填充近端缓存）、成员数最多的社团详情；
+ * 2. 典型的列表 / 搜索查询，参数轮换以绕过短时查询缓存，让 Hibernate 查询计划和热点代码经过 JIT；
+ * 3. POI 导入导出类加载；
+ * 4. 经过完整 HTTP 链路（过滤器、拦截器、JSON / Smile / CBOR 序列化）的本机请求。
+ * 单项失败只记日志；超过时间预算则提前结束，保证实例最终能就绪。
+ */
+@Component
+@Slf4j
+public class StartupWarmUp {
+
+    private static final String[] CATEGORIES = {null, "academic", "sports", "art"};
+    private static final String[] SORTS = {"name", "members", "date", "activities"};
+    // 列表查询按实体属性排序（取值见 ClubQueryDTO.SORT_FIELDS），与快速搜索的排序选项不同
+    private static final String[] SORT_FIELDS = {"name", "currentMembers", "establishedDate", "activitiesCount"};
+    private static final String[] ACCEPTS = {"application/json", "application/x-jackson-smile", "application/cbor"};
+
+    private final ClubService clubService;
+    private final ClubRepository clubRepository;
+    private final ObjectProvider<ClubExcelCodec> excelCodec;
+    private final MeterRegistry meterRegistry;
+    private volatile int port;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.iterations:50}")
+    private int iterations;
+
+    @Value("${app.warmup.top-clubs:50}")
+    private int topClubs;
+
+    @Value("${app.warmup.max-seconds:60}")
+    private long maxSeconds;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    public StartupWarmUp(ClubService clubService, ClubRepository clubRepository,
+                         ObjectProvider<ClubExcelCodec> excelCodec, MeterRegistry meterRegistry) {
+        this.clubService = clubService;
+        this.clubRepository = clubRepository;
+        this.excelCodec = excelCodec;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        port = event.getWebServer().getPort();
+    }
+
+    // 排在启动基准之前；就绪探针要等所有 ApplicationReadyEvent 监听器（含索引构建）执行完才切换
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE - 10)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(maxSeconds);
+
+        List<Long> topIds = attempt("热门社团", () -> clubRepository.findTopIdsByMembers(PageRequest.of(0, topClubs)));
+        attempt("参考数据", () -> {
+            clubService.getCampuses();
+            clubService.getStatistics();
+            clubService.getHotSearchTags();
+            if (topIds != null) {
+                topIds.forEach(clubService::getClubById);
+            }
+            return null;
+        });
+
+        int done = 0;
+        for (; done < iterations && System.nanoTime() < deadline; done++) {
+            int i = done;
+            attempt("典型查询", () -> {
+                ClubQueryDTO query = new ClubQueryDTO();
+                query.setPage(i % 5 + 1);
+                query.setCategory(CATEGORIES[i % CATEGORIES.length]);
+                query.setSortField(SORT_FIELDS[i % SORT_FIELDS.length]);
+                clubService.getClubs(query);
+
+                QuickSearchDTO search = new QuickSearchDTO();
+                search.setKeyword(String.valueOf((char) ('a' + i % 26)));
+                search.setSort(SORTS[i % SORTS.length]);
+                return clubService.quickSearch(search);
+            });
+        }
+
+        attempt("POI", () -> {
+            ClubExcelCodec codec = excelCodec.getObject();
+            codec.readClubs(new ByteArrayInputStream(codec.importTemplate()));
+            if (topIds != null && !topIds.isEmpty()) {
+                List<Club> clubs = new ArrayList<>();
+                clubs.add(clubService.getClubById(topIds.get(0)));
+                codec.writeClubs(clubs);
+            }
+            return null;
+        });
+
+        attempt("HTTP", () -> {
+            warmUpHttp(topIds, deadline);
+            return null;
+        });
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        TimeGauge.builder("club.startup.warmup", () -> elapsedMs, TimeUnit.MILLISECONDS).register(meterRegistry);
+        log.info("启动预热完成: {} 轮查询, 耗时 {} ms", done, elapsedMs);
+    }
+
+    private void warmUpHttp(List<Long> topIds, long deadline) throws Exception {
+        List<String> paths = new ArrayList<>(List.of(
+                "/clubs/categories", "/clubs/campuses", "/clubs/statistics", "/clubs/quick-search?keyword=a",
+                "/clubs/suggest?keyword=a"));
+        if (topIds != null && !topIds.isEmpty()) {
+            paths.add("/clubs/" + topIds.get(0));
+            paths.add("/clubs/" + topIds.get(0) + "/similar");
+        }
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        for (String path : paths) {
+            for (String accept : ACCEPTS) {
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + contextPath + path))
+                        .header("Accept", accept)
+                        .header("Accept-Encoding", "gzip")
+                        .timeout(Duration.ofSeconds(10))
+                        .build();
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+        }
+    }
+
+    private <T> T attempt(String name, WarmUpTask<T> task) {
+        try {
+            return task.run();
+        } catch (Exception e) {
+            log.warn("启动预热项失败: {}", name, e);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarmUpTask<T> {
+        T run() throws Exception;
+    }
+}
@@ -2,12 +2,25 @@ package com.club.controller;
 
 import com.club.dto.*;
 import com.club.entity.Club;
+import com.club.service.AuditTrail;
+import com.club.service.ClubChangeFeed;
+import com.club.service.ClubExcelCodec;
+import com.club.service.ClubMembershipService;
+import com.club.service.ClubRecommender;
 import com.club.service.ClubService;
+import com.club.service.ClubSuggester;
+import com.club.service.TrendRollupService;
+import com.club.service.export.ExportFormat;
+import com.club.common.Admission;
 import com.club.common.ApiResponse;
+import com.club.common.EndpointClass;
 
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -15,11 +28,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.Map;
 import java.util.HashMap;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -29,6 +45,13 @@ import java.util.List;
 public class ClubController {
 
     private final ClubService clubService;
+    private final ClubChangeFeed clubChangeFeed;
+    private final ClubSuggester clubSuggester;
+    private final ClubRecommender clubRecommender;
+    private final AuditTrail auditTrail;
+    private final TrendRollupService trendRollupService;
+    private final ClubMembershipService membershipService;
+    private final ObjectProvider<ClubExcelCodec> clubExcelCodec;
 
     /**
      * 创建社团
@@ -40,6 +63,17 @@ public class ClubController {
                 .body(ApiResponse.success("创建成功", club));
     }
 
+    /**
+     * 批量创建社团（JSON）
+     */
+    @PostMapping("/bulk")
+    @Admission(EndpointClass.BULK)
+    public ResponseEntity<ApiResponse<Integer>> bulkCreateClubs(@RequestBody List<ClubDTO> clubDTOs) {
+        int count = clubService.bulkCreateClubs(clubDTOs);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("成功创建 " + count + " 个社团", count));
+    }
+
     /**
      * 更新社团
      */
@@ -51,6 +85,25 @@ public class ClubController {
         return ResponseEntity.ok(ApiResponse.success("更新成功", club));
     }
 
+    /**
+     * 部分更新社团（只修改传入的字段，带 version 时做乐观锁校验）
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> patchClub(
+            @PathVariable Long id,
+            @RequestBody ClubPatchDTO patchDTO) {
+        try {
+            long version = clubService.patchClub(id, patchDTO);
+            Map<String, Object> result = new HashMap<>();
+            result.put("id", id);
+            result.put("version", version);
+            return ResponseEntity.ok(ApiResponse.success("更新成功", result));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(ApiResponse.CONFLICT, "社团已被他人修改，请刷新后重试"));
+        }
+    }
+
     /**
      * 删除社团
      */
@@ -69,10 +122,75 @@ public class ClubController {
         return ResponseEntity.ok(ApiResponse.success(club));
     }
 
+    /**
+     * 相似社团推荐（预计算结果，直接读内存）
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<ApiResponse<List<SimilarClubDTO>>> getSimilarClubs(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(clubRecommender.similarTo(id, limit)));
+    }
+
+    /**
+     * 成员名册（按入社时间翻页，afterJoinedAt/afterId 为上一页最后一条）
+     */
+    @GetMapping("/{id}/members")
+    public ResponseEntity<ApiResponse<List<MemberDTO>>> getMembers(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterJoinedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(ApiResponse.success(membershipService.listMembers(id, afterJoinedAt, afterId, size)));
+    }
+
+    /**
+     * 判断学生是否为社团成员（内存位图）
+     */
+    @GetMapping("/{id}/members/{studentId}")
+    public ResponseEntity<ApiResponse<Boolean>> isMember(@PathVariable Long id, @PathVariable Long studentId) {
+        return ResponseEntity.ok(ApiResponse.success(membershipService.isMember(id, studentId)));
+    }
+
+    /**
+     * 加入社团
+     */
+    @PostMapping("/{id}/members")
+    public ResponseEntity<ApiResponse<MemberDTO>> joinClub(
+            @PathVariable Long id,
+            @RequestParam Long studentId,
+            @RequestParam(required = false) String role) {
+        MemberDTO member = membershipService.join(id, studentId, role);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("加入成功", member));
+    }
+
+    /**
+     * 修改成员角色
+     */
+    @PutMapping("/{id}/members/{studentId}")
+    public ResponseEntity<ApiResponse<Void>> changeMemberRole(
+            @PathVariable Long id,
+            @PathVariable Long studentId,
+            @RequestParam String role) {
+        membershipService.changeRole(id, studentId, role);
+        return ResponseEntity.ok(ApiResponse.success("修改成功"));
+    }
+
+    /**
+     * 退出社团
+     */
+    @DeleteMapping("/{id}/members/{studentId}")
+    public ResponseEntity<ApiResponse<Void>> leaveClub(@PathVariable Long id, @PathVariable Long studentId) {
+        membershipService.leave(id, studentId);
+        return ResponseEntity.ok(ApiResponse.success("退出成功"));
+    }
+
     /**
      * 获取社团列表（带分页和筛选）
      */
     @PostMapping("/list")
+    @Admission(EndpointClass.HEAVY_READ)
     public ResponseEntity<ApiResponse<Page<Club>>> getClubs(@RequestBody ClubQueryDTO queryDTO) {
         Page<Club> page = clubService.getClubs(queryDTO);
         return ResponseEntity.ok(ApiResponse.success(page));
@@ -100,22 +218,35 @@ public class ClubController {
      * 批量导入社团
      */
     @PostMapping("/import")
+    @Admission(EndpointClass.BULK)
     public ResponseEntity<ApiResponse<Integer>> importClubs(@RequestParam("file") MultipartFile file) {
         int count = clubService.importClubs(file);
         return ResponseEntity.ok(ApiResponse.success("成功导入 " + count + " 条数据", count));
     }
 
+    /**
+     * 按名称合并导入（已有社团更新，内容未变化的跳过）
+     */
+    @PostMapping("/import/upsert")
+    @Admission(EndpointClass.BULK)
+    public ResponseEntity<ApiResponse<ImportResultDTO>> upsertClubs(@RequestParam("file") MultipartFile file) {
+        ImportResultDTO result = clubService.upsertClubs(file);
+        return ResponseEntity.ok(ApiResponse.success(String.format("新增 %d 条，更新 %d 条，未变化 %d 条",
+                result.getInserted(), result.getUpdated(), result.getUnchanged()), result));
+    }
+
     /**
      * 下载导入模板
      */
     @GetMapping("/import/template")
+    @Admission(EndpointClass.HEAVY_READ)
     public void downloadTemplate(HttpServletResponse response) {
         try {
             response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
             response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
                     "attachment; filename=\"club_import_template.xlsx\"");
 
-            byte[] template = generateImportTemplate();
+            byte[] template = clubExcelCodec.getObject().importTemplate();
             response.getOutputStream().write(template);
 
         } catch (Exception e) {
@@ -127,6 +258,7 @@ public class ClubController {
      * 导出社团数据
      */
     @PostMapping("/export")
+    @Admission(EndpointClass.HEAVY_READ)
     public void exportClubs(@RequestBody ClubExportDTO exportDTO, HttpServletResponse response) {
         try {
             byte[] excelBytes = clubService.exportClubs(exportDTO);
@@ -147,10 +279,37 @@ public class ClubController {
         }
     }
 
+    /**
+     * 流式导出社团数据（csv / ndjson），适合数据管道拉取全量数据
+     */
+    @PostMapping("/export/{format}")
+    @Admission(EndpointClass.HEAVY_READ)
+    public void exportClubsStream(@PathVariable String format,
+                                  @RequestBody ClubExportDTO exportDTO,
+                                  HttpServletResponse response) throws Exception {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        prepareStreamResponse(response, exportFormat, "clubs");
+        clubService.exportClubs(exportDTO, exportFormat, response.getOutputStream());
+    }
+
+    /**
+     * 流式导出活动数据（csv / ndjson）
+     */
+    @GetMapping("/activities/export/{format}")
+    @Admission(EndpointClass.HEAVY_READ)
+    public void exportActivitiesStream(@PathVariable String format,
+                                       @RequestParam(required = false) Long clubId,
+                                       HttpServletResponse response) throws Exception {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        prepareStreamResponse(response, exportFormat, "activities");
+        clubService.exportActivities(clubId, exportFormat, response.getOutputStream());
+    }
+
     /**
      * 批量操作
      */
     @PostMapping("/batch")
+    @Admission(EndpointClass.BULK)
     public ResponseEntity<ApiResponse<Void>> batchOperation(@RequestBody Map<String, Object> request) {
         @SuppressWarnings("unchecked")
         List<Long> clubIds = (List<Long>) request.get("clubIds");
@@ -164,11 +323,46 @@ public class ClubController {
      * 获取统计数据
      */
     @GetMapping("/statistics")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getStatistics() {
-        Map<String, Object> statistics = clubService.getStatistics();
+    @Admission(EndpointClass.HEAVY_READ)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStatistics(
+            @RequestParam(required = false) String campus) {
+        Map<String, Object> statistics = clubService.getStatistics(campus);
         return ResponseEntity.ok(ApiResponse.success(statistics));
     }
 
+    /**
+     * 获取趋势统计（只读预聚合表）
+     * metric: clubs_created（按月、按类别）、members_total（按月）、activities（按周、按活动类型）
+     */
+    @GetMapping("/statistics/trends")
+    public ResponseEntity<ApiResponse<List<TrendPointDTO>>> getTrends(
+            @RequestParam String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String dimension) {
+        return ResponseEntity.ok(ApiResponse.success(trendRollupService.getTrend(metric, from, to, dimension)));
+    }
+
+    /**
+     * 社团变更审计记录（按时间倒序；翻页时传上一页最后一条的 id 作为 beforeId）
+     */
+    @GetMapping("/audit")
+    public ResponseEntity<ApiResponse<List<AuditLogDTO>>> getAuditLog(
+            @RequestParam(required = false) Long clubId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(auditTrail.query(clubId, beforeId, size)));
+    }
+
+    /**
+     * 订阅社团变更推送（SSE），替代定时轮询 /list 和 /statistics
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Admission(EndpointClass.NONE)
+    public SseEmitter subscribeChanges() {
+        return clubChangeFeed.subscribe();
+    }
+
     /**
      * 获取热门搜索标签
      */
@@ -196,6 +390,16 @@ public class ClubController {
         return ResponseEntity.ok(ApiResponse.success(campuses));
     }
 
+    /**
+     * 归档已关闭的校区（该校区社团整体删除，后台分块清理关联数据）
+     */
+    @PostMapping("/campuses/{campus}/archive")
+    @Admission(EndpointClass.BULK)
+    public ResponseEntity<ApiResponse<Integer>> archiveCampus(@PathVariable String campus) {
+        int count = clubService.archiveCampus(campus);
+        return ResponseEntity.ok(ApiResponse.success("已归档 " + count + " 个社团", count));
+    }
+
     /**
      * 获取状态选项
      */
@@ -232,10 +436,21 @@ public class ClubController {
      */
     @GetMapping("/presidents")
     public ResponseEntity<ApiResponse<List<String>>> getPresidents(@RequestParam(required = false) String keyword) {
-        List<String> presidents = List.of("张三", "李四", "王五", "赵六", "孙七");
+        List<String> presidents = clubSuggester.suggestPresidents(keyword, ClubSuggester.MAX_SUGGESTIONS);
         return ResponseEntity.ok(ApiResponse.success(presidents));
     }
 
+    /**
+     * 社团名称联想（支持拼音全拼与首字母）
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<SuggestionDTO>>> suggestClubs(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "6") Integer limit) {
+        List<SuggestionDTO> suggestions = clubSuggester.suggestClubs(keyword, limit);
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+
     /**
      * 获取班级列表
      */
@@ -245,38 +460,9 @@ public class ClubController {
         return ResponseEntity.ok(ApiResponse.success(classes));
     }
 
-    private byte[] generateImportTemplate() throws Exception {
-        // 创建简单的Excel模板
-        try (var workbook = new org.apache.poi.xssf.usermodel.XSSFWorkbook();
-             var outputStream = new java.io.ByteArrayOutputStream()) {
-
-            var sheet = workbook.createSheet("模板");
-
-            // 创建标题行
-            var headerRow = sheet.createRow(0);
-            String[] headers = {"社团名称*", "类别", "描述", "负责人*", "联系方式", "校区", "成立日期(YYYY-MM-DD)"};
-            for (int i = 0; i < headers.length; i++) {
-                var cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-            }
-
-            // 添加示例数据
-            var exampleRow = sheet.createRow(1);
-            exampleRow.createCell(0).setCellValue("计算机协会");
-            exampleRow.createCell(1).setCellValue("academic");
-            exampleRow.createCell(2).setCellValue("致力于计算机技术学习与交流");
-            exampleRow.createCell(3).setCellValue("张三");
-            exampleRow.createCell(4).setCellValue("computer@example.com");
-            exampleRow.createCell(5).setCellValue("校本部");
-            exampleRow.createCell(6).setCellValue("2020-09-01");
-
-            // 调整列宽
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-        }
+    private void prepareStreamResponse(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "_" + System.currentTimeMillis() + "." + format.getExtension() + "\"");
     }
-}
\ No newline at end of file
+}
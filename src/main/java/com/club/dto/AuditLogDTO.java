@@ -0,0 +1,23 @@
+package com.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 社团变更审计记录
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogDTO {
+    private Long id;
+    private Long clubId;
+    private String action;   // create, update, patch, delete, activate, deactivate, import
+    private String operator; // 请求头 X-Operator，缺省为客户端地址
+    private Map<String, Object> changes; // 字段 -> {old, new}
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 社团变更事件（SSE 推送的消息体）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClubChangeEvent {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String BATCH = "batch";
+
+    private String type;                 // created, updated, deleted, batch
+    private List<Long> clubIds;          // 受影响的社团ID
+    private Map<String, Long> statsDelta; // 统计数据增量，如 totalClubs:+1；null 表示增量未知，需重新拉取统计
+    private long timestamp;
+    private boolean remote;              // 是否来自其他节点（经失效日志同步），不再写回日志
+
+    public static ClubChangeEvent of(String type, List<Long> clubIds, Map<String, Long> statsDelta) {
+        return new ClubChangeEvent(type, clubIds, statsDelta, System.currentTimeMillis(), false);
+    }
+
+    public static ClubChangeEvent remote(String type, List<Long> clubIds) {
+        // 失效日志不记录统计增量
+        return new ClubChangeEvent(type, clubIds, null, System.currentTimeMillis(), true);
+    }
+}
@@ -0,0 +1,27 @@
+package com.club.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 社团部分更新参数，只有非 null 字段会被写入
+ */
+@Data
+public class ClubPatchDTO {
+    private Long version; // 客户端持有的版本号，提供时走单条条件 UPDATE
+
+    private String name;
+    private String description;
+    private String category;
+    private LocalDate establishedDate;
+    private Integer maxMembers;
+    private String president;
+    private String contact;
+    private String campus;
+    private String status;
+    private String wechatGroup;
+    private String qqGroup;
+    private List<String> tags;
+    private String logoUrl;
+}
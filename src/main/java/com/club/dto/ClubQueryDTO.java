@@ -2,14 +2,20 @@ package com.club.dto;
 
 import lombok.Data;
 import java.time.LocalDate;
+import java.util.Set;
 
 @Data
 public class ClubQueryDTO {
+    // 可用于 sortField 的实体属性
+    public static final Set<String> SORT_FIELDS = Set.of(
+            "id", "name", "currentMembers", "establishedDate", "activitiesCount", "createdAt", "updatedAt");
+
     private Integer page = 1;
     private Integer size = 10;
     private String keyword;
     private String category;
     private String status;
+    private String campus;   // 校区范围：设置后所有条件都限定在该校区内
     private String sortField = "name";
     private String sortOrder = "asc";
     private LocalDate startDate;
@@ -0,0 +1,18 @@
+package com.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 按名称合并导入的结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+    private int inserted;   // 新建的社团
+    private int updated;    // 内容有变化、已更新的社团
+    private int unchanged;  // 内容相同、未写库的社团
+    private int skipped;    // 名称为空或对应社团正在删除中
+}
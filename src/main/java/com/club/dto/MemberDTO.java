@@ -0,0 +1,20 @@
+package com.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 社团成员
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberDTO {
+    private Long id;                // 名册记录ID（翻页游标的一部分）
+    private Long studentId;
+    private String role;            // member, officer, president
+    private LocalDateTime joinedAt;
+}
@@ -7,6 +7,7 @@ public class QuickSearchDTO {
     private String keyword;
     private String category;
     private String status;
+    private String campus;   // 校区范围
     private String sort = "name";
     private Integer limit = 6;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 相似社团推荐结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarClubDTO {
+    private Long clubId;
+    private String name;
+    private Double score; // 余弦相似度，0~1
+}
@@ -0,0 +1,17 @@
+package com.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜索联想结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    private Long clubId;
+    private String text;     // 社团名称
+    private Integer members; // 当前成员数（排序依据）
+}
@@ -0,0 +1,18 @@
+package com.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * 趋势数据点
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendPointDTO {
+    private LocalDate bucket;  // 时间桶起始日（月初 / 周一）
+    private String dimension;  // 类别、活动类型等，无维度时为空串
+    private Long value;
+}
@@ -8,8 +8,12 @@ import java.time.LocalDateTime;
 @Table(name = "activity")
 @Data
 public class Activity {
+    // 表分配器 + pooled-lo 批量取号，IDENTITY 会让 Hibernate 关闭批量插入
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "activity_id")
+    @TableGenerator(name = "activity_id", table = "id_generator",
+            pkColumnName = "seq_name", valueColumnName = "next_val",
+            pkColumnValue = "activity", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -2,15 +2,25 @@ package com.club.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Where;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "club")
 @Data
+@DynamicUpdate
+// 已标记删除、等待后台清理的社团对所有实体查询不可见
+@Where(clause = "deleted_at IS NULL")
 public class Club {
+    // 表分配器 + pooled-lo 批量取号，IDENTITY 会让 Hibernate 关闭批量插入
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "club_id")
+    @TableGenerator(name = "club_id", table = "id_generator",
+            pkColumnName = "seq_name", valueColumnName = "next_val",
+            pkColumnValue = "club", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -58,12 +68,21 @@ public class Club {
     @Column(name = "tags")
     private String tags; // 用逗号分隔的标签
 
+    // 乐观锁版本号，旧数据由列默认值补 0
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
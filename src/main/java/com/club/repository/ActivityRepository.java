@@ -0,0 +1,34 @@
+package com.club.repository;
+
+import com.club.entity.Activity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface ActivityRepository extends JpaRepository<Activity, Long> {
+
+    // 游标方式流式读取（fetchSize 见 ClubRepositoryImpl.STREAMING_FETCH_SIZE），需在只读事务内消费并关闭。
+    // 按社团导出与全量导出分成两条语句，各自使用 club_id 索引 / 主键顺序扫描
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ClubRepositoryImpl.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM Activity a WHERE a.clubId = :clubId ORDER BY a.id")
+    Stream<Activity> streamByClubId(@Param("clubId") Long clubId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ClubRepositoryImpl.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM Activity a ORDER BY a.id")
+    Stream<Activity> streamAll();
+}
@@ -1,6 +1,7 @@
 package com.club.repository;
 
 import com.club.entity.Club;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -8,12 +9,18 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ClubRepository extends JpaRepository<Club, Long>, JpaSpecificationExecutor<Club> {
+public interface ClubRepository extends JpaRepository<Club, Long>, JpaSpecificationExecutor<Club>, ClubRepositoryCustom {
 
-    boolean existsByName(String name);
+    // 占用这些名称的社团：[name, deleted_at]，参数为小写名称
+    // 与名称唯一键同一规则：不区分大小写（name_lower 为生成列，见 V2 迁移），
+    // 原生 SQL 不受 @Where 限制，待删除的社团在彻底清理前仍占用名称
+    @Query(value = "SELECT name, deleted_at FROM club WHERE name_lower IN (:names)", nativeQuery = true)
+    List<Object[]> findNameOwners(@Param("names") Collection<String> lowerNames);
 
     Long countByStatus(String status);
 
@@ -28,13 +35,47 @@ public interface ClubRepository extends JpaRepository<Club, Long>, JpaSpecificat
             "(:max IS NULL OR c.currentMembers <= :max)")
     Long countByMemberRange(@Param("min") Integer min, @Param("max") Integer max);
 
+    // 联想索引只需要 id、名称、负责人、成员数
+    @Query("SELECT c.id, c.name, c.president, c.currentMembers FROM Club c")
+    List<Object[]> findSuggestionRows();
+
+    @Query("SELECT c.id, c.name, c.president, c.currentMembers FROM Club c WHERE c.id IN :ids")
+    List<Object[]> findSuggestionRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id, c.name, c.category, c.tags, c.campus, c.description FROM Club c")
+    List<Object[]> findRecommendationRows();
+
+    @Query("SELECT c.id, c.name, c.category, c.tags, c.campus, c.description FROM Club c WHERE c.id IN :ids")
+    List<Object[]> findRecommendationRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM Club c ORDER BY c.currentMembers DESC")
+    List<Long> findTopIdsByMembers(Pageable pageable);
+
+    // (campus, deleted_at, ...) 索引上的松散索引扫描，每个校区只读一个索引项（见 V8 迁移）
     @Query("SELECT DISTINCT c.campus FROM Club c WHERE c.campus IS NOT NULL")
     List<String> findDistinctCampuses();
 
+    // 校区范围的统计：总数、活跃数、成员总数、成员规模分布，一次扫描该校区的索引区间
+    @Query("SELECT COUNT(c), " +
+            "SUM(CASE WHEN c.status = 'active' THEN 1 ELSE 0 END), " +
+            "SUM(c.currentMembers), " +
+            "SUM(CASE WHEN c.currentMembers BETWEEN 0 AND 50 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.currentMembers BETWEEN 50 AND 100 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.currentMembers BETWEEN 100 AND 200 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.currentMembers >= 200 THEN 1 ELSE 0 END) " +
+            "FROM Club c WHERE c.campus = :campus")
+    List<Object[]> summarizeCampus(@Param("campus") String campus);
+
+    @Query("SELECT c.category, COUNT(c) FROM Club c WHERE c.campus = :campus GROUP BY c.category")
+    List<Object[]> countByCategoryInCampus(@Param("campus") String campus);
+
+    @Query("SELECT c.id FROM Club c WHERE c.campus = :campus")
+    List<Long> findIdsByCampus(@Param("campus") String campus);
+
     // 删除有问题的 deleteAll(List<Long> ids) 方法
-    // 使用 @Query 注解的自定义删除方法
+    // 只做标记，活动、Logo 和社团行由 ClubDeletionService 在后台分块清理
     @Modifying
     @Transactional
-    @Query("DELETE FROM Club c WHERE c.id IN :ids")
-    void deleteByIds(@Param("ids") List<Long> ids);
+    @Query("UPDATE Club c SET c.deletedAt = :now, c.version = c.version + 1 WHERE c.id IN :ids AND c.deletedAt IS NULL")
+    int markDeleted(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
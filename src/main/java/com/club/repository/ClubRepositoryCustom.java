@@ -0,0 +1,36 @@
+package com.club.repository;
+
+import com.club.entity.Club;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface ClubRepositoryCustom {
+
+    /**
+     * 按版本号条件更新指定字段：UPDATE ... SET ..., version = version + 1 WHERE id = ? AND version = ?
+     * @return 受影响行数，0 表示记录不存在或版本已变化
+     */
+    int updateFieldsIfVersion(Long id, Long expectedVersion, Map<String, Object> changes);
+
+    /**
+     * 游标方式流式读取，按 id 排序，只读且不进入二级缓存
+     * 调用方需在只读事务内消费并关闭 Stream
+     */
+    Stream<Club> streamAll(Specification<Club> spec);
+
+    /**
+     * 按固定的 JPQL 分页查询（只读事务），排序由 JPQL 自带，pageable 只提供页码与页大小
+     * 总数查询只在无法由当前页推算时执行
+     */
+    Page<Club> findPage(String jpql, String countJpql, Map<String, Object> parameters, Pageable pageable);
+
+    /**
+     * 按固定的 JPQL 查询前 limit 条（只读事务）
+     */
+    List<Club> findList(String jpql, Map<String, Object> parameters, int limit);
+}
@@ -0,0 +1,95 @@
+package com.club.repository;
+
+import com.club.entity.Club;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ClubRepositoryImpl implements ClubRepositoryCustom {
+
+    // MySQL Connector/J 只有 fetchSize = Integer.MIN_VALUE 时才逐行流式返回，否则会把整个结果集读进内存
+    public static final String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateFieldsIfVersion(Long id, Long expectedVersion, Map<String, Object> changes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Club> update = criteriaBuilder.createCriteriaUpdate(Club.class);
+        Root<Club> root = update.from(Club.class);
+
+        changes.forEach(update::set);
+        update.set(root.<Long>get("version"), criteriaBuilder.sum(root.<Long>get("version"), 1L));
+        update.set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(
+                criteriaBuilder.equal(root.get("id"), id),
+                criteriaBuilder.equal(root.get("version"), expectedVersion),
+                criteriaBuilder.isNull(root.get("deletedAt")));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Stream<Club> streamAll(Specification<Club> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Club> query = criteriaBuilder.createQuery(Club.class);
+        Root<Club> root = query.from(Club.class);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Club> findPage(String jpql, String countJpql, Map<String, Object> parameters, Pageable pageable) {
+        TypedQuery<Club> query = entityManager.createQuery(jpql, Club.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        parameters.forEach(query::setParameter);
+        List<Club> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            TypedQuery<Long> count = entityManager.createQuery(countJpql, Long.class);
+            parameters.forEach(count::setParameter);
+            return count.getSingleResult();
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Club> findList(String jpql, Map<String, Object> parameters, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        TypedQuery<Club> query = entityManager.createQuery(jpql, Club.class).setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,392 @@
+package com.club.service;
+
+import com.club.dto.AuditLogDTO;
+import com.club.entity.Club;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 社团变更审计
+ * 在内存中计算字段级差异，事务提交后放入有界无锁队列，由后台线程按批写入 club_audit_log（多行 INSERT）。
+ * durability=sync 时在业务事务内直接写入，与变更同时提交；
+ * 队列写满时调用方最多等待 offer-timeout-ms，仍无空间则由调用方自己写入，审计记录不丢弃。
+ * 停机时批量写入失败不再重试整批：剩余记录逐条写入，写不进数据库的追加到 spill-file（每行一条 JSON）。
+ */
+@Service
+@Slf4j
+public class AuditTrail {
+
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String PATCH = "patch";
+    public static final String DELETE = "delete";
+    public static final String ACTIVATE = "activate";
+    public static final String DEACTIVATE = "deactivate";
+    public static final String IMPORT = "import";
+
+    public enum Durability { ASYNC, SYNC }
+
+    // 停机逐条写入时，连续失败这么多条就不再尝试数据库
+    private static final int MAX_SALVAGE_FAILURES = 3;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO club_audit_log (club_id, action, operator, changes, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final ObjectMapper objectMapper;
+    private final Queue<Record> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter backpressure;
+    private final Counter callerWrites;
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    @Value("${app.audit.durability:ASYNC}")
+    private Durability durability;
+
+    @Value("${app.audit.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.offer-timeout-ms:1000}")
+    private long offerTimeoutMs;
+
+    @Value("${app.audit.spill-file:./logs/audit-spill.ndjson}")
+    private String spillFile = "./logs/audit-spill.ndjson";
+
+    public AuditTrail(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTransaction = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.objectMapper = objectMapper;
+        this.backpressure = Counter.builder("club.audit.backpressure").register(meterRegistry);
+        this.callerWrites = Counter.builder("club.audit.caller-writes").register(meterRegistry);
+        Gauge.builder("club.audit.queued", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = new Thread(this::flushLoop, "club-audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 审计字段快照（不含版本号、时间戳等技术字段）
+     */
+    public static Map<String, Object> snapshot(Club club) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", club.getName());
+        fields.put("description", club.getDescription());
+        fields.put("category", club.getCategory());
+        fields.put("establishedDate", club.getEstablishedDate());
+        fields.put("currentMembers", club.getCurrentMembers());
+        fields.put("maxMembers", club.getMaxMembers());
+        fields.put("president", club.getPresident());
+        fields.put("contact", club.getContact());
+        fields.put("campus", club.getCampus());
+        fields.put("status", club.getStatus());
+        fields.put("logoUrl", club.getLogoUrl());
+        fields.put("wechatGroup", club.getWechatGroup());
+        fields.put("qqGroup", club.getQqGroup());
+        fields.put("tags", club.getTags());
+        return fields;
+    }
+
+    /**
+     * 字段级差异：字段 -> {old, new}；before 为空表示新建，after 为空表示删除
+     */
+    static Map<String, Map<String, Object>> diff(Map<String, Object> before, Map<String, Object> after) {
+        Set<String> fields = new LinkedHashSet<>();
+        if (before != null) {
+            fields.addAll(before.keySet());
+        }
+        if (after != null) {
+            fields.addAll(after.keySet());
+        }
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        for (String field : fields) {
+            Object oldValue = before != null ? before.get(field) : null;
+            Object newValue = after != null ? after.get(field) : null;
+            if (!Objects.equals(oldValue, newValue)) {
+                Map<String, Object> change = new LinkedHashMap<>();
+                change.put("old", oldValue);
+                change.put("new", newValue);
+                changes.put(field, change);
+            }
+        }
+        return changes;
+    }
+
+    public void record(String action, Long clubId, Map<String, Object> before, Map<String, Object> after) {
+        submit(action, clubId, diff(before, after));
+    }
+
+    /**
+     * 未读取旧值的修改（带版本号的 PATCH），只记录新值
+     */
+    public void recordNewValues(String action, Long clubId, Map<String, Object> newValues) {
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        newValues.forEach((field, value) -> {
+            Map<String, Object> change = new LinkedHashMap<>();
+            change.put("new", value);
+            changes.put(field, change);
+        });
+        submit(action, clubId, changes);
+    }
+
+    private void submit(String action, Long clubId, Map<String, Map<String, Object>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("审计记录序列化失败", e);
+        }
+        Record record = new Record(clubId, action, currentOperator(), json, LocalDateTime.now());
+
+        if (durability == Durability.SYNC) {
+            write(List.of(record));
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 回滚的变更不记录
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(record);
+                }
+            });
+        } else {
+            enqueue(record);
+        }
+    }
+
+    /**
+     * 分页查询（按 ID 倒序的 keyset 翻页，beforeId 为上一页最后一条的 ID）
+     */
+    public List<AuditLogDTO> query(Long clubId, Long beforeId, int size) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (clubId != null) {
+            conditions.add("club_id = ?");
+            args.add(clubId);
+        }
+        if (beforeId != null) {
+            conditions.add("id < ?");
+            args.add(beforeId);
+        }
+        String sql = "SELECT id, club_id, action, operator, changes, created_at FROM club_audit_log"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY id DESC LIMIT ?";
+        args.add(Math.min(Math.max(size, 1), 100));
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new AuditLogDTO(
+                rs.getLong("id"), rs.getLong("club_id"), rs.getString("action"), rs.getString("operator"),
+                parseChanges(rs.getString("changes")), rs.getTimestamp("created_at").toLocalDateTime()), args.toArray());
+    }
+
+    private void enqueue(Record record) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        boolean waited = false;
+        while (true) {
+            int size = queued.get();
+            if (size < capacity) {
+                if (queued.compareAndSet(size, size + 1)) {
+                    queue.offer(record);
+                    if (size + 1 >= batchSize) {
+                        LockSupport.unpark(flusher);
+                    }
+                    return;
+                }
+                continue;
+            }
+            if (!waited) {
+                waited = true;
+                backpressure.increment();
+                LockSupport.unpark(flusher);
+            }
+            if (System.nanoTime() >= deadline || !running) {
+                // 队列持续写满：由调用方直接写入，变慢但不丢记录
+                callerWrites.increment();
+                write(List.of(record));
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void flushLoop() {
+        List<Record> batch = new ArrayList<>(batchSize);
+        while (running || queued.get() > 0 || !batch.isEmpty()) {
+            if (batch.isEmpty()) {
+                Record record;
+                while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                    batch.add(record);
+                }
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                continue;
+            }
+            try {
+                // 整批在一个事务内写入：失败时不会留下部分行，重试或逐条补写不会重复
+                batchTransaction.executeWithoutResult(status -> write(batch));
+                queued.addAndGet(-batch.size());
+                batch.clear();
+            } catch (RuntimeException e) {
+                if (!running) {
+                    // 停机中：取出队列里剩余的记录，连同本批逐条处理
+                    List<Record> remaining = new ArrayList<>(batch);
+                    Record record;
+                    while ((record = queue.poll()) != null) {
+                        remaining.add(record);
+                    }
+                    log.error("停机时审计记录批量写入失败，剩余 {} 条改为逐条写入", remaining.size(), e);
+                    salvage(remaining);
+                    queued.addAndGet(-remaining.size());
+                    batch.clear();
+                    continue;
+                }
+                // 数据库不可用时保留本批，稍后重试；队列写满后调用方会感知到背压
+                log.error("审计记录写入失败，{} 条稍后重试", batch.size(), e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs * 4));
+            }
+        }
+    }
+
+    /**
+     * 逐条写入，单条异常数据不影响其他记录；连续失败说明数据库不可用，其余记录直接写入溢出文件
+     */
+    private void salvage(List<Record> records) {
+        List<Record> failed = new ArrayList<>();
+        int consecutiveFailures = 0;
+        for (Record record : records) {
+            if (consecutiveFailures >= MAX_SALVAGE_FAILURES) {
+                failed.add(record);
+                continue;
+            }
+            try {
+                write(List.of(record));
+                consecutiveFailures = 0;
+            } catch (RuntimeException e) {
+                failed.add(record);
+                consecutiveFailures++;
+            }
+        }
+        log.info("逐条写入审计记录 {} 条，失败 {} 条", records.size() - failed.size(), failed.size());
+        if (!failed.isEmpty()) {
+            spill(failed);
+        }
+    }
+
+    private void spill(List<Record> records) {
+        Path path = Paths.get(spillFile);
+        try {
+            if (path.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Record record : records) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("clubId", record.clubId);
+                    row.put("action", record.action);
+                    row.put("operator", record.operator);
+                    row.put("changes", record.changes);
+                    row.put("createdAt", record.createdAt.toString());
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.newLine();
+                }
+            }
+            log.error("{} 条审计记录未能写入数据库，已追加到 {}", records.size(), path.toAbsolutePath());
+        } catch (IOException e) {
+            // 最后的兜底：记录内容留在错误日志里
+            log.error("审计记录溢出文件写入失败，{} 条记录输出到日志", records.size(), e);
+            records.forEach(record -> log.error("未保存的审计记录: {}", record));
+        }
+    }
+
+    private void write(List<Record> records) {
+        // rewriteBatchedStatements=true 时驱动会改写为多行 INSERT
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) -> {
+            ps.setLong(1, record.clubId);
+            ps.setString(2, record.action);
+            ps.setString(3, record.operator);
+            ps.setString(4, record.changes);
+            ps.setTimestamp(5, Timestamp.valueOf(record.createdAt));
+        });
+    }
+
+    private Map<String, Object> parseChanges(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<LinkedHashMap<String, Object>>() { });
+        } catch (JsonProcessingException e) {
+            return Map.of("raw", json);
+        }
+    }
+
+    private static String currentOperator() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            String operator = request.getHeader("X-Operator");
+            String value = operator != null && !operator.isBlank() ? operator.trim() : request.getRemoteAddr();
+            return value.length() > 64 ? value.substring(0, 64) : value;
+        }
+        return "system";
+    }
+
+    private record Record(Long clubId, String action, String operator, String changes, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.club.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 已标记删除社团的后台清理
+ * 每个分块是一个独立的短事务（DELETE ... LIMIT），分块之间暂停，避免长时间锁行影响交互接口；
+ * 处理中断后下次轮询会从剩余数据继续，多节点同时清理同一社团也只是重复执行幂等的删除。
+ */
+@Service
+@Slf4j
+public class ClubDeletionService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FileService fileService;
+    private final Counter clubsPurged;
+    private final Counter activitiesPurged;
+    private final Counter membersPurged;
+
+    @Value("${app.deletion.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.deletion.clubs-per-run:10}")
+    private int clubsPerRun;
+
+    @Value("${app.deletion.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.deletion.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    public ClubDeletionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               FileService fileService, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fileService = fileService;
+        this.clubsPurged = Counter.builder("club.deletion.purged").tag("type", "club").register(meterRegistry);
+        this.activitiesPurged = Counter.builder("club.deletion.purged").tag("type", "activity").register(meterRegistry);
+        this.membersPurged = Counter.builder("club.deletion.purged").tag("type", "member").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.deletion.poll-ms:2000}")
+    public void purgePending() {
+        if (!enabled) {
+            return;
+        }
+        List<Object[]> pending = jdbcTemplate.query(
+                "SELECT id, logo_url FROM club WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT ?",
+                (rs, rowNum) -> new Object[]{rs.getLong("id"), rs.getString("logo_url")}, clubsPerRun);
+        for (Object[] club : pending) {
+            try {
+                purge((Long) club[0], (String) club[1]);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("清理已删除社团失败，下次轮询重试: {}", club[0], e);
+            }
+        }
+    }
+
+    void purge(Long clubId, String logoUrl) throws InterruptedException {
+        purgeChunks("DELETE FROM activity WHERE club_id = ? LIMIT ?", clubId, activitiesPurged);
+        purgeChunks("DELETE FROM club_member WHERE club_id = ? LIMIT ?", clubId, membersPurged);
+
+        // 先删文件再删社团行：文件删除失败时社团仍保留标记，下次重试
+        if (logoUrl != null && !isReferencedElsewhere(clubId, logoUrl)) {
+            fileService.deleteFile(logoUrl);
+        }
+        if (inTransaction("DELETE FROM club WHERE id = ? AND deleted_at IS NOT NULL", clubId) > 0) {
+            clubsPurged.increment();
+            log.info("已清理社团 {}", clubId);
+        }
+    }
+
+    private void purgeChunks(String sql, Long clubId, Counter counter) throws InterruptedException {
+        int deleted;
+        do {
+            deleted = inTransaction(sql, clubId, chunkSize);
+            counter.increment(deleted);
+            if (deleted == chunkSize && chunkPauseMs > 0) {
+                Thread.sleep(chunkPauseMs);
+            }
+        } while (deleted == chunkSize);
+    }
+
+    private boolean isReferencedElsewhere(Long clubId, String logoUrl) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM club WHERE logo_url = ? AND id <> ?", Integer.class, logoUrl, clubId);
+        return count != null && count > 0;
+    }
+
+    private int inTransaction(String sql, Object... args) {
+        Integer count = transactionTemplate.execute(status -> jdbcTemplate.update(sql, args));
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,189 @@
+package com.club.service;
+
+import com.club.entity.Club;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 社团 Excel 读写
+ * POI 类较多、加载慢，单独成 Bean 并延迟创建，调用方通过 ObjectProvider 获取，
+ * 启动时不会加载任何 POI 类，第一次导入/导出时才初始化。
+ */
+@Component
+@Lazy
+@Slf4j
+public class ClubExcelCodec {
+
+    /**
+     * 读取导入文件，跳过标题行，解析失败的行忽略
+     */
+    public List<Club> readClubs(InputStream inputStream) throws IOException {
+        List<Club> clubs = new ArrayList<>();
+        try (Workbook workbook = new XSSFWorkbook(inputStream)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Iterator<Row> rowIterator = sheet.iterator();
+
+            // 跳过标题行
+            if (rowIterator.hasNext()) {
+                rowIterator.next();
+            }
+
+            while (rowIterator.hasNext()) {
+                Club club = parseRowToClub(rowIterator.next());
+                if (club != null) {
+                    clubs.add(club);
+                }
+            }
+        }
+        return clubs;
+    }
+
+    public byte[] writeClubs(List<Club> clubs) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook();
+             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+
+            Sheet sheet = workbook.createSheet("社团列表");
+
+            // 创建标题行
+            Row headerRow = sheet.createRow(0);
+            String[] headers = {"社团名称", "类别", "负责人", "当前成员数", "成立日期", "状态", "校区", "联系方式"};
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+
+                CellStyle style = workbook.createCellStyle();
+                Font font = workbook.createFont();
+                font.setBold(true);
+                style.setFont(font);
+                cell.setCellStyle(style);
+            }
+
+            // 填充数据
+            int rowNum = 1;
+            for (Club club : clubs) {
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(club.getName());
+                row.createCell(1).setCellValue(club.getCategory());
+                row.createCell(2).setCellValue(club.getPresident());
+                row.createCell(3).setCellValue(club.getCurrentMembers());
+                row.createCell(4).setCellValue(club.getEstablishedDate().toString());
+                row.createCell(5).setCellValue(club.getStatus());
+                row.createCell(6).setCellValue(club.getCampus());
+                row.createCell(7).setCellValue(club.getContact());
+            }
+
+            // 自动调整列宽
+            for (int i = 0; i < headers.length; i++) {
+                sheet.autoSizeColumn(i);
+            }
+
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    public byte[] importTemplate() throws IOException {
+        // 创建简单的Excel模板
+        try (Workbook workbook = new XSSFWorkbook();
+             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+
+            Sheet sheet = workbook.createSheet("模板");
+
+            // 创建标题行
+            Row headerRow = sheet.createRow(0);
+            String[] headers = {"社团名称*", "类别", "描述", "负责人*", "联系方式", "校区", "成立日期(YYYY-MM-DD)"};
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+            }
+
+            // 添加示例数据
+            Row exampleRow = sheet.createRow(1);
+            exampleRow.createCell(0).setCellValue("计算机协会");
+            exampleRow.createCell(1).setCellValue("academic");
+            exampleRow.createCell(2).setCellValue("致力于计算机技术学习与交流");
+            exampleRow.createCell(3).setCellValue("张三");
+            exampleRow.createCell(4).setCellValue("computer@example.com");
+            exampleRow.createCell(5).setCellValue("校本部");
+            exampleRow.createCell(6).setCellValue("2020-09-01");
+
+            // 调整列宽
+            for (int i = 0; i < headers.length; i++) {
+                sheet.autoSizeColumn(i);
+            }
+
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    private Club parseRowToClub(Row row) {
+        try {
+            Club club = new Club();
+
+            // 读取Excel行数据并设置到Club对象
+            club.setName(getCellValue(row.getCell(0)));
+            club.setCategory(getCellValue(row.getCell(1)));
+            club.setDescription(getCellValue(row.getCell(2)));
+            club.setPresident(getCellValue(row.getCell(3)));
+            club.setContact(getCellValue(row.getCell(4)));
+            club.setCampus(getCellValue(row.getCell(5)));
+
+            // 解析日期
+            Cell dateCell = row.getCell(6);
+            if (dateCell != null) {
+                if (dateCell.getCellType() == CellType.NUMERIC) {
+                    club.setEstablishedDate(dateCell.getLocalDateTimeCellValue().toLocalDate());
+                } else {
+                    club.setEstablishedDate(LocalDate.parse(getCellValue(dateCell)));
+                }
+            }
+
+            // 设置默认值
+            club.setCurrentMembers(0);
+            club.setMaxMembers(100);
+            club.setStatus("active");
+            club.setActivitiesCount(0);
+            club.setCreatedAt(LocalDateTime.now());
+            club.setUpdatedAt(LocalDateTime.now());
+
+            return club;
+        } catch (Exception e) {
+            log.warn("解析行数据失败", e);
+            return null;
+        }
+    }
+
+    private String getCellValue(Cell cell) {
+        if (cell == null) return "";
+
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue().trim();
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return cell.getLocalDateTimeCellValue().toString();
+                } else {
+                    return String.valueOf((int) cell.getNumericCellValue());
+                }
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            case FORMULA:
+                return cell.getCellFormula();
+            default:
+                return "";
+        }
+    }
+}
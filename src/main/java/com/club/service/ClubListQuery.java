@@ -0,0 +1,195 @@
+package com.club.service;
+
+import com.club.dto.ClubQueryDTO;
+import com.club.dto.QuickSearchDTO;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 社团列表 / 快速搜索的 JPQL 渲染
+ * 每种条件组合（形状）渲染成固定的 JPQL 字符串，取值全部走绑定参数，同一形状复用 Hibernate 查询计划
+ * （Criteria 查询在 Hibernate 6.2 中不进入计划缓存）和服务端预编译语句。
+ * 列表查询固定排序下最多 64 种形状：
+ * 关键词和负责人合成一个文本条件（缺的一方用 '%' 占位），日期/成员数范围缺的一端用哨兵值，
+ * onlyActive 并入状态条件，二者冲突时结果必为空，不访问数据库。
+ * 关键词和负责人都是不区分大小写的包含匹配，用户输入中的 % 和 _ 按普通字符处理（以 ! 转义）；
+ * 未指定负责人时 ":president = '%'" 在执行时按绑定值折叠为真，负责人为空的社团也不会被排除。
+ */
+@Getter
+public final class ClubListQuery {
+
+    public static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+    public static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final String ANY = "%";
+    private static final char LIKE_ESCAPE = '!';
+
+    private final String shape;
+    private final String jpql;
+    private final String countJpql;
+    private final Map<String, Object> parameters;
+    private final boolean alwaysEmpty;
+
+    private ClubListQuery(String shape, String where, String orderBy, Map<String, Object> parameters,
+                          boolean alwaysEmpty) {
+        this.shape = shape;
+        this.jpql = "SELECT c FROM Club c" + where + orderBy;
+        this.countJpql = "SELECT COUNT(c) FROM Club c" + where;
+        this.parameters = parameters;
+        this.alwaysEmpty = alwaysEmpty;
+    }
+
+    public static ClubListQuery list(ClubQueryDTO dto) {
+        String sortField = sortField(dto.getSortField());
+        String direction = sortDirection(dto.getSortOrder());
+        String keyword = likePattern(dto.getKeyword());
+        String president = likePattern(dto.getPresident());
+        String status = blankToNull(dto.getStatus());
+        boolean onlyActive = Boolean.TRUE.equals(dto.getOnlyActive());
+        boolean dateRange = dto.getStartDate() != null || dto.getEndDate() != null;
+        boolean memberRange = dto.getMinMembers() != null || dto.getMaxMembers() != null;
+
+        Conditions conditions = new Conditions();
+        // 校区范围：campus 是校区索引的前导列，只扫描该校区的索引区间
+        conditions.equal("campus", blankToNull(dto.getCampus()));
+        if (keyword != null || president != null) {
+            conditions.add("(LOWER(c.name) LIKE :keyword ESCAPE '!' OR LOWER(c.president) LIKE :keyword ESCAPE '!' "
+                    + "OR LOWER(c.description) LIKE :keyword ESCAPE '!') "
+                    + "AND (:president = '%' OR LOWER(c.president) LIKE :president ESCAPE '!')");
+            conditions.parameters.put("keyword", keyword != null ? keyword : ANY);
+            conditions.parameters.put("president", president != null ? president : ANY);
+        } else {
+            conditions.skip();
+        }
+        conditions.equal("category", blankToNull(dto.getCategory()));
+        conditions.equal("status", onlyActive && status == null ? "active" : status);
+        if (dateRange) {
+            conditions.add("c.establishedDate BETWEEN :startDate AND :endDate");
+            conditions.parameters.put("startDate", Objects.requireNonNullElse(dto.getStartDate(), MIN_DATE));
+            conditions.parameters.put("endDate", Objects.requireNonNullElse(dto.getEndDate(), MAX_DATE));
+        } else {
+            conditions.skip();
+        }
+        if (memberRange) {
+            conditions.add("c.currentMembers BETWEEN :minMembers AND :maxMembers");
+            conditions.parameters.put("minMembers", Objects.requireNonNullElse(dto.getMinMembers(), 0));
+            conditions.parameters.put("maxMembers", Objects.requireNonNullElse(dto.getMaxMembers(), Integer.MAX_VALUE));
+        } else {
+            conditions.skip();
+        }
+
+        boolean statusConflict = onlyActive && status != null && !"active".equals(status);
+        return new ClubListQuery("list:" + conditions.flags + ":" + sortField + "," + direction.toLowerCase(),
+                conditions.where(), " ORDER BY c." + sortField + " " + direction, conditions.parameters, statusConflict);
+    }
+
+    public static ClubListQuery quickSearch(QuickSearchDTO dto) {
+        String keyword = likePattern(dto.getKeyword());
+
+        Conditions conditions = new Conditions();
+        conditions.equal("campus", blankToNull(dto.getCampus()));
+        if (keyword != null) {
+            conditions.add("(LOWER(c.name) LIKE :keyword ESCAPE '!' OR LOWER(c.president) LIKE :keyword ESCAPE '!' "
+                    + "OR LOWER(c.description) LIKE :keyword ESCAPE '!')");
+            conditions.parameters.put("keyword", keyword);
+        } else {
+            conditions.skip();
+        }
+        conditions.equal("category", blankToNull(dto.getCategory()));
+        conditions.equal("status", blankToNull(dto.getStatus()));
+
+        String orderBy = quickSearchOrder(dto.getSort());
+        return new ClubListQuery("quick:" + conditions.flags + ":" + orderBy, conditions.where(),
+                " ORDER BY " + orderBy, conditions.parameters, false);
+    }
+
+    // 排序字段只接受可排序的实体属性，未设置时按名称排序；其他取值直接报错，不悄悄换成别的排序
+    private static String sortField(String sortField) {
+        if (StringUtils.isBlank(sortField)) {
+            return "name";
+        }
+        if (!ClubQueryDTO.SORT_FIELDS.contains(sortField)) {
+            throw new RuntimeException("不支持的排序字段: " + sortField);
+        }
+        return sortField;
+    }
+
+    private static String sortDirection(String sortOrder) {
+        if (StringUtils.isBlank(sortOrder) || "asc".equalsIgnoreCase(sortOrder)) {
+            return "ASC";
+        }
+        if ("desc".equalsIgnoreCase(sortOrder)) {
+            return "DESC";
+        }
+        throw new RuntimeException("不支持的排序方向: " + sortOrder);
+    }
+
+    private static String quickSearchOrder(String sortOption) {
+        if (sortOption == null) {
+            return "c.name ASC";
+        }
+        switch (sortOption) {
+            case "members":
+                return "c.currentMembers DESC";
+            case "date":
+                return "c.establishedDate DESC";
+            case "activities":
+                return "c.activitiesCount DESC";
+            case "name":
+            default:
+                return "c.name ASC";
+        }
+    }
+
+    private static String likePattern(String keyword) {
+        if (StringUtils.isBlank(keyword)) {
+            return null;
+        }
+        StringBuilder pattern = new StringBuilder("%");
+        for (char ch : keyword.trim().toLowerCase().toCharArray()) {
+            if (ch == '%' || ch == '_' || ch == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(ch);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static String blankToNull(String value) {
+        return StringUtils.isBlank(value) ? null : value;
+    }
+
+    // 按固定顺序追加条件，每个可选条件在形状标识里占一位
+    private static final class Conditions {
+        private final StringBuilder where = new StringBuilder();
+        private final StringBuilder flags = new StringBuilder();
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+        private void equal(String field, Object value) {
+            if (value == null) {
+                skip();
+                return;
+            }
+            add("c." + field + " = :" + field);
+            parameters.put(field, value);
+        }
+
+        private void add(String condition) {
+            where.append(where.length() == 0 ? " WHERE " : " AND ").append(condition);
+            flags.append('1');
+        }
+
+        private void skip() {
+            flags.append('0');
+        }
+
+        private String where() {
+            return where.toString();
+        }
+    }
+}
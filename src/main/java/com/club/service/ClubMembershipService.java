@@ -0,0 +1,298 @@
+package com.club.service;
+
+import com.club.config.DataSourceRouteHolder;
+import com.club.dto.ClubChangeEvent;
+import com.club.dto.MemberDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 社团成员名册
+ * 加入/退出在同一事务内写名册并条件更新 club.current_members：人数上限由
+ * "current_members < max_members" 的条件更新保证，club 行锁让同一社团的并发加入串行，不会超员。
+ * "某学生是否在某社团"由每个社团一份的内存位图回答，首次查询时从主库加载，
+ * 本节点的变更提交后直接改位图；其他节点的变更经失效日志同步过来后丢弃位图重新加载。
+ * 位图数量有上限（app.membership.max-bitmaps），超出时淘汰最久未查询的社团。
+ */
+@Service
+@Slf4j
+public class ClubMembershipService {
+
+    public static final String ROLE_MEMBER = "member";
+    public static final String ROLE_OFFICER = "officer";
+    public static final String ROLE_PRESIDENT = "president";
+
+    private static final Set<String> ROLES = Set.of(ROLE_MEMBER, ROLE_OFFICER, ROLE_PRESIDENT);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrendRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.membership.max-bitmaps:1000}")
+    private int maxBitmaps = 1000;
+
+    private final Map<Long, Slot> bitmaps = new ConcurrentHashMap<>();
+
+    public ClubMembershipService(JdbcTemplate jdbcTemplate, TrendRollupService rollupService,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public MemberDTO join(Long clubId, Long studentId, String role) {
+        String memberRole = role == null ? ROLE_MEMBER : role;
+        checkRole(memberRole);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO club_member (club_id, student_id, role, joined_at) VALUES (?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS);
+                statement.setLong(1, clubId);
+                statement.setLong(2, studentId);
+                statement.setString(3, memberRole);
+                statement.setTimestamp(4, Timestamp.valueOf(now));
+                return statement;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("该学生已是社团成员");
+        }
+
+        int updated = jdbcTemplate.update("UPDATE club SET current_members = COALESCE(current_members, 0) + 1, "
+                + "version = version + 1, updated_at = ? "
+                + "WHERE id = ? AND deleted_at IS NULL AND COALESCE(current_members, 0) < COALESCE(max_members, ?)",
+                Timestamp.valueOf(now), clubId, Integer.MAX_VALUE);
+        if (updated == 0) {
+            // 抛出异常回滚上面插入的名册记录
+            throw new RuntimeException(clubExists(clubId) ? "社团人数已满" : "社团不存在");
+        }
+
+        rollupService.recordMembersChanged(1);
+        afterCommit(() -> updateBitmap(clubId, bitmap -> bitmap.add(studentId)));
+        publishChange(clubId, 1);
+        return new MemberDTO(keyHolder.getKey().longValue(), studentId, memberRole, now);
+    }
+
+    @Transactional
+    public void leave(Long clubId, Long studentId) {
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM club_member WHERE club_id = ? AND student_id = ?", clubId, studentId);
+        if (deleted == 0) {
+            throw new RuntimeException("该学生不是社团成员");
+        }
+        jdbcTemplate.update("UPDATE club SET current_members = current_members - 1, version = version + 1, updated_at = ? "
+                + "WHERE id = ? AND current_members > 0", Timestamp.valueOf(LocalDateTime.now()), clubId);
+
+        rollupService.recordMembersChanged(-1);
+        afterCommit(() -> updateBitmap(clubId, bitmap -> bitmap.remove(studentId)));
+        publishChange(clubId, -1);
+    }
+
+    @Transactional
+    public void changeRole(Long clubId, Long studentId, String role) {
+        checkRole(role);
+        int updated = jdbcTemplate.update(
+                "UPDATE club_member SET role = ? WHERE club_id = ? AND student_id = ?", role, clubId, studentId);
+        if (updated == 0) {
+            throw new RuntimeException("该学生不是社团成员");
+        }
+    }
+
+    /**
+     * 名册分页（按入社时间正序的 keyset 翻页，游标为上一页最后一条的 joinedAt 与 id）
+     */
+    public List<MemberDTO> listMembers(Long clubId, LocalDateTime afterJoinedAt, Long afterId, int size) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, student_id, role, joined_at FROM club_member WHERE club_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(clubId);
+        if (afterJoinedAt != null) {
+            Timestamp cursor = Timestamp.valueOf(afterJoinedAt);
+            sql.append(" AND (joined_at > ? OR (joined_at = ? AND id > ?))");
+            args.add(cursor);
+            args.add(cursor);
+            args.add(afterId != null ? afterId : Long.MAX_VALUE);
+        }
+        sql.append(" ORDER BY joined_at, id LIMIT ?");
+        args.add(Math.min(Math.max(size, 1), 200));
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new MemberDTO(
+                rs.getLong("id"), rs.getLong("student_id"), rs.getString("role"),
+                rs.getTimestamp("joined_at").toLocalDateTime()), args.toArray());
+    }
+
+    public boolean isMember(Long clubId, Long studentId) {
+        Slot slot = bitmaps.get(clubId);
+        if (slot == null) {
+            slot = load(clubId);
+        }
+        slot.lastAccess = System.nanoTime();
+        return await(slot.future).contains(studentId);
+    }
+
+    /**
+     * 本节点的变更已在提交后直接改位图；删除的社团和其他节点的变更需要丢弃位图
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubChange(ClubChangeEvent event) {
+        if (!event.isRemote() && !ClubChangeEvent.DELETED.equals(event.getType())) {
+            return;
+        }
+        if (event.getClubIds() == null || event.getClubIds().isEmpty()) {
+            bitmaps.clear();
+        } else {
+            event.getClubIds().forEach(bitmaps::remove);
+        }
+    }
+
+    /**
+     * 加载在 Map 锁之外进行：先放入占位，同一社团的并发查询等待同一次加载，不阻塞其他社团。
+     * 加载期间提交的变更先记在占位上，加载完成后按顺序作用到新位图（加入/退出重复执行结果不变）
+     */
+    private Slot load(Long clubId) {
+        Slot created = new Slot();
+        Slot existing = bitmaps.putIfAbsent(clubId, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            MemberBitmap bitmap = DataSourceRouteHolder.onPrimary(() -> {
+                if (!clubExists(clubId)) {
+                    throw new RuntimeException("社团不存在");
+                }
+                MemberBitmap loaded = new MemberBitmap();
+                jdbcTemplate.query("SELECT student_id FROM club_member WHERE club_id = ?",
+                        rs -> {
+                            loaded.add(rs.getLong(1));
+                        }, clubId);
+                return loaded;
+            });
+            created.loaded(bitmap);
+            log.debug("已加载社团 {} 的成员位图，{} 人", clubId, bitmap.cardinality());
+            evictIfNeeded();
+        } catch (Throwable e) {
+            bitmaps.remove(clubId, created);
+            created.future.completeExceptionally(e);
+            throw e;
+        }
+        return created;
+    }
+
+    private void updateBitmap(Long clubId, Consumer<MemberBitmap> change) {
+        Slot slot = bitmaps.get(clubId);
+        if (slot != null) {
+            slot.apply(change);
+        }
+    }
+
+    // 淘汰最久未查询的已加载位图
+    private void evictIfNeeded() {
+        while (bitmaps.size() > maxBitmaps) {
+            Map.Entry<Long, Slot> eldest = null;
+            for (Map.Entry<Long, Slot> entry : bitmaps.entrySet()) {
+                if (entry.getValue().future.isDone()
+                        && (eldest == null || entry.getValue().lastAccess - eldest.getValue().lastAccess < 0)) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            bitmaps.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static MemberBitmap await(CompletableFuture<MemberBitmap> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private boolean clubExists(Long clubId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM club WHERE id = ? AND deleted_at IS NULL", Integer.class, clubId);
+        return count != null && count > 0;
+    }
+
+    private void checkRole(String role) {
+        if (!ROLES.contains(role)) {
+            throw new RuntimeException("不支持的成员角色: " + role);
+        }
+    }
+
+    private void publishChange(Long clubId, long memberDelta) {
+        eventPublisher.publishEvent(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(clubId),
+                Map.of("totalMembers", memberDelta)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Slot {
+        private final CompletableFuture<MemberBitmap> future = new CompletableFuture<>();
+        private final List<Consumer<MemberBitmap>> pending = new ArrayList<>();
+        private MemberBitmap bitmap;
+        private volatile long lastAccess = System.nanoTime();
+
+        private synchronized void apply(Consumer<MemberBitmap> change) {
+            if (bitmap != null) {
+                change.accept(bitmap);
+            } else {
+                pending.add(change);
+            }
+        }
+
+        private void loaded(MemberBitmap loaded) {
+            synchronized (this) {
+                pending.forEach(change -> change.accept(loaded));
+                pending.clear();
+                bitmap = loaded;
+            }
+            lastAccess = System.nanoTime();
+            future.complete(loaded);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.club.service;
+
+import com.club.config.DataSourceRouteHolder;
+import com.club.dto.ClubChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 集群一致的近端缓存（社团详情、校区列表、统计数据）
+ *
+ * 写操作在同一事务内向 cache_invalidation_log 追加一条记录（一个事件一行），各节点定时按主键增量轮询
+ * 并淘汰对应的键，不需要额外的消息中间件。主键在事务提交前就已分配，可能出现小 ID 晚提交的情况，
+ * 因此水位线只推进到"已超过 settle-seconds 的连续记录"，之后的记录每次轮询都会重读一遍；
+ * 一次轮询内用读游标逐页向后读，已处理过的记录只跳过不重复应用。
+ *
+ * 陈旧时间上界：正常情况下为一个轮询周期（poll-ms）；轮询失败或事务超过 settle-seconds 时
+ * 由条目 TTL（ttl-ms）兜底。
+ *
+ * 缓存未命中时在只读事务中加载（路由到从库）。淘汰后 replica-lag-ms 内从从库加载的结果只返回、不回填，
+ * 避免把从库尚未同步的旧数据缓存一整个 TTL；刚写过数据的会话（读主库）跳过缓存直接从主库读取，
+ * 读到的最新结果可以回填。缓存的值会被多个请求共享，调用方需要放入不可变的值或自行返回副本。
+ */
+@Component
+@Slf4j
+public class ClubNearCache {
+
+    public static final String CLUB = "club";
+    public static final String CAMPUSES = "campuses";
+    public static final String STATISTICS = "statistics";
+
+    private static final int POLL_BATCH = 1000;
+    // 超过这个数量的事件按整体失效记录，日志行长度有界
+    private static final int MAX_LOGGED_IDS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.near-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.near-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.near-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.near-cache.replica-lag-ms:1000}")
+    private long replicaLagMs = 1000;
+
+    @Value("${app.near-cache.settle-seconds:10}")
+    private int settleSeconds;
+
+    @Value("${app.near-cache.retention-hours:24}")
+    private int retentionHours;
+
+    private final Map<String, Map<Object, Entry>> caches = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<Long> appliedUnsettled = new HashSet<>();
+    private volatile long watermark = -1;
+    private volatile long lastEvictedAt;
+
+    public ClubNearCache(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(String cache, Object key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Map<Object, Entry> entries = caches.computeIfAbsent(cache, name -> new ConcurrentHashMap<>());
+        boolean primary = DataSourceRouteHolder.isForcePrimary();
+        Entry entry = entries.get(key);
+        if (!primary && entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            return (V) entry.value;
+        }
+
+        long startGeneration = generation.get();
+        V value = readOnlyTransaction.execute(status -> loader.get());
+        // 加载期间发生过淘汰则不回填，避免把旧值写回缓存；从库在淘汰后的延迟窗口内也可能还是旧值
+        boolean fresh = primary || System.currentTimeMillis() - lastEvictedAt >= replicaLagMs;
+        if (value != null && fresh && startGeneration == generation.get()) {
+            if (entries.size() >= maxEntries) {
+                Iterator<Object> iterator = entries.keySet().iterator();
+                if (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMs));
+        }
+        return value;
+    }
+
+    /**
+     * 与写操作同一事务写入失效日志，数据与日志一起提交或回滚
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void appendToLog(ClubChangeEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        List<Long> clubIds = event.getClubIds();
+        String ids = clubIds == null || clubIds.isEmpty() || clubIds.size() > MAX_LOGGED_IDS
+                ? null : clubIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.update("INSERT INTO cache_invalidation_log (origin, event_type, club_ids) VALUES (?, ?, ?)",
+                nodeId, event.getType(), ids);
+    }
+
+    /**
+     * 本节点的写操作提交后立即淘汰，不等轮询
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubChange(ClubChangeEvent event) {
+        evict(event.getClubIds());
+    }
+
+    @Scheduled(fixedDelayString = "${app.near-cache.poll-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (watermark < 0) {
+                // 启动时缓存为空，历史日志无需处理
+                Long maxId = jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(MAX(id), 0) FROM cache_invalidation_log", Long.class);
+                watermark = maxId != null ? maxId : 0;
+                return;
+            }
+            pollOnce();
+        } catch (Exception e) {
+            log.warn("轮询缓存失效日志失败，依赖 TTL 兜底: {}", e.getMessage());
+        }
+    }
+
+    // 只由调度线程调用，appliedUnsettled 无需加锁
+    private void pollOnce() {
+        // 每种事件类型受影响的社团；值为 null 表示整体失效
+        Map<String, Set<Long>> remoteChanges = new LinkedHashMap<>();
+        long cursor = watermark;
+        long newWatermark = watermark;
+        boolean settledPrefix = true;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT id, origin, event_type, club_id, club_ids, "
+                            + "CASE WHEN created_at < TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP(3)) THEN 1 ELSE 0 END AS settled "
+                            + "FROM cache_invalidation_log WHERE id > ? ORDER BY id LIMIT " + POLL_BATCH,
+                    -settleSeconds, cursor);
+            for (Map<String, Object> row : rows) {
+                long id = ((Number) row.get("id")).longValue();
+                cursor = id;
+                boolean settled = ((Number) row.get("settled")).intValue() == 1;
+                if (appliedUnsettled.add(id) && !nodeId.equals(row.get("origin"))) {
+                    collect(remoteChanges, (String) row.get("event_type"), row);
+                }
+                if (settledPrefix && settled) {
+                    newWatermark = id;
+                } else {
+                    settledPrefix = false;
+                }
+            }
+        } while (rows.size() == POLL_BATCH);
+
+        long committed = newWatermark;
+        appliedUnsettled.removeIf(id -> id <= committed);
+        watermark = newWatermark;
+
+        // 转成本地事件：同时让查询缓存、搜索联想、SSE 推送感知其他节点的修改
+        remoteChanges.forEach((type, ids) -> eventPublisher.publishEvent(
+                ClubChangeEvent.remote(type, ids == null ? List.of() : new ArrayList<>(ids))));
+    }
+
+    private void collect(Map<String, Set<Long>> changes, String type, Map<String, Object> row) {
+        if (changes.containsKey(type) && changes.get(type) == null) {
+            return;
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        if (row.get("club_ids") != null) {
+            for (String id : ((String) row.get("club_ids")).split(",")) {
+                ids.add(Long.valueOf(id));
+            }
+        } else if (row.get("club_id") != null) {
+            ids.add(((Number) row.get("club_id")).longValue());
+        } else {
+            changes.put(type, null);
+            return;
+        }
+        changes.computeIfAbsent(type, key -> new LinkedHashSet<>()).addAll(ids);
+    }
+
+    @Scheduled(fixedDelayString = "${app.near-cache.purge-ms:600000}")
+    public void purge() {
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM cache_invalidation_log "
+                    + "WHERE created_at < TIMESTAMPADD(HOUR, ?, CURRENT_TIMESTAMP(3)) LIMIT 1000", -retentionHours);
+        } while (deleted == 1000);
+    }
+
+    public void evict(List<Long> clubIds) {
+        generation.incrementAndGet();
+        lastEvictedAt = System.currentTimeMillis();
+        Map<Object, Entry> clubs = caches.get(CLUB);
+        if (clubs != null) {
+            if (clubIds == null || clubIds.isEmpty()) {
+                clubs.clear();
+            } else {
+                clubIds.forEach(clubs::remove);
+            }
+        }
+        // 任何社团变化都可能影响校区列表和统计数据
+        caches.remove(CAMPUSES);
+        caches.remove(STATISTICS);
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.club.service;
+
+import com.club.config.DataSourceRouteHolder;
+import com.club.dto.ClubChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果合并 + 短时缓存
+ * 相同参数的并发查询只有第一个真正访问数据库，其余请求等待同一个结果（single-flight）；
+ * 结果再保留很短的时间，条目数有上限。任何社团变更提交后整体失效。
+ * 加载在只读事务中执行（路由到从库），等待者不开事务、不占连接，最多等待 wait-timeout-ms。
+ * 缓存的值会被多个请求共享，调用方需要放入不可变、已脱离持久化上下文的副本。
+ * 刚写过数据的会话（读主库）不读也不写缓存：缓存里可能是写入之后从延迟的从库加载的旧结果。
+ */
+@Component
+@Slf4j
+public class ClubQueryCache {
+
+    @Value("${app.query-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.query-cache.ttl-ms:2000}")
+    private long ttlMs;
+
+    @Value("${app.query-cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${app.query-cache.wait-timeout-ms:5000}")
+    private long waitTimeoutMs = 5000;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+
+    // 每次失效加一；失效前发起的查询完成后不再写回缓存
+    private final AtomicLong generation = new AtomicLong();
+
+    public ClubQueryCache(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(Object key, Supplier<V> loader) {
+        if (!enabled || DataSourceRouteHolder.isForcePrimary()) {
+            return load(loader);
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && (entry.isLoading() || entry.expiresAt > now)) {
+            return (V) await(entry.future);
+        }
+
+        Entry created = new Entry(generation.get());
+        Entry existing = entry == null
+                ? entries.putIfAbsent(key, created)
+                : (entries.replace(key, entry, created) ? null : entries.get(key));
+        if (existing != null) {
+            return (V) await(existing.future);
+        }
+
+        try {
+            V value = load(loader);
+            created.expiresAt = System.currentTimeMillis() + ttlMs;
+            created.future.complete(value);
+            if (created.generation != generation.get()) {
+                entries.remove(key, created);
+            }
+            evictIfNeeded();
+            return value;
+        } catch (Throwable e) {
+            // 任何异常（包括 Error）都要结束 future，否则等待者会一直挂着
+            entries.remove(key, created);
+            created.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private <V> V load(Supplier<V> loader) {
+        return readOnlyTransaction.execute(status -> loader.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubChange(ClubChangeEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private void evictIfNeeded() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> !entry.isLoading() && entry.expiresAt <= now);
+        Iterator<Object> iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("查询繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("查询被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private final long generation;
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(long generation) {
+            this.generation = generation;
+        }
+
+        private boolean isLoading() {
+            return !future.isDone();
+        }
+    }
+}
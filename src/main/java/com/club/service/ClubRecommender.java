@@ -0,0 +1,345 @@
+package com.club.service;
+
+import com.club.dto.ClubChangeEvent;
+import com.club.dto.SimilarClubDTO;
+import com.club.repository.ClubRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 相似社团推荐
+ * 每个社团由类别、校区、标签和简介词项构成稀疏向量（TF-IDF + L2 归一化），
+ * 通过倒排表只对有共同特征的社团计算余弦相似度，预先算好每个社团的 top-K 邻居，请求时直接读内存表。
+ * 启动时用 fork-join 并行全量计算；社团变更时只重算受影响的邻域，每天再全量重建一次以刷新 IDF。
+ * 变更事件交给单线程的更新队列按顺序处理，不占用提交事务的请求线程；
+ * 一次变更的社团超过 incremental-max-changes（如大批量导入）时改为排一次全量重建，多次请求合并为一次。
+ */
+@Service
+@Slf4j
+public class ClubRecommender {
+
+    private static final double CATEGORY_WEIGHT = 3.0;
+    private static final double TAG_WEIGHT = 2.0;
+    private static final double CAMPUS_WEIGHT = 1.0;
+
+    private static final Comparator<SimilarClubDTO> RANKING = Comparator
+            .comparingDouble(SimilarClubDTO::getScore).reversed()
+            .thenComparing(SimilarClubDTO::getClubId);
+
+    private final ClubRepository clubRepository;
+    private final int topK;
+    private final ForkJoinPool pool;
+    // 变更事件的更新队列：单线程，保证按提交顺序作用到模型
+    private final Executor updater;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    @Value("${app.recommend.incremental-max-changes:200}")
+    private int incrementalMaxChanges = 200;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // 只在写锁内修改，读请求只访问 neighbors
+    private volatile Model model = new Model();
+
+    @Autowired
+    public ClubRecommender(ClubRepository clubRepository,
+                           @Value("${app.recommend.top-k:10}") int topK,
+                           @Value("${app.recommend.parallelism:0}") int parallelism) {
+        this(clubRepository, topK, parallelism, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "club-recommend-updater");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    ClubRecommender(ClubRepository clubRepository, int topK, int parallelism, Executor updater) {
+        this.clubRepository = clubRepository;
+        this.topK = topK;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.updater = updater;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (updater instanceof ExecutorService) {
+            ((ExecutorService) updater).shutdownNow();
+        }
+        pool.shutdownNow();
+    }
+
+    public List<SimilarClubDTO> similarTo(Long clubId, int limit) {
+        List<SimilarClubDTO> neighbors = model.neighbors.getOrDefault(clubId, List.of());
+        return neighbors.subList(0, Math.max(0, Math.min(limit, neighbors.size())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.recommend.rebuild-cron:0 30 4 * * *}")
+    public void rebuild() {
+        List<Object[]> rows = clubRepository.findRecommendationRows();
+        writeLock.lock();
+        try {
+            Model rebuilt = new Model();
+            Map<Long, Map<String, Double>> raw = new HashMap<>();
+            for (Object[] row : rows) {
+                raw.put((Long) row[0], rawFeatures(row));
+                rebuilt.names.put((Long) row[0], (String) row[1]);
+            }
+            raw.values().forEach(features -> rebuilt.countTerms(features, 1));
+            raw.forEach(rebuilt::add);
+
+            // 倒排表建好后只读，按社团并行计算 top-K
+            pool.submit(() -> raw.keySet().parallelStream().forEach(rebuilt::recomputeNeighbors)).join();
+            model = rebuilt;
+            log.info("相似社团推荐构建完成，共 {} 个社团", rows.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubChange(ClubChangeEvent event) {
+        List<Long> clubIds = event.getClubIds();
+        if (clubIds == null || clubIds.isEmpty() || clubIds.size() > incrementalMaxChanges) {
+            // 没有 ID 表示整体失效（例如其他节点一次变更的社团过多）；变更过多时增量重算不比全量省
+            requestRebuild();
+            return;
+        }
+        updater.execute(() -> {
+            try {
+                applyChange(event);
+            } catch (RuntimeException e) {
+                log.warn("相似社团增量更新失败，改为全量重建", e);
+                requestRebuild();
+            }
+        });
+    }
+
+    private void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            updater.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("相似社团全量重建失败，等待下一次变更或定时重建", e);
+                }
+            });
+        }
+    }
+
+    private void applyChange(ClubChangeEvent event) {
+        List<Object[]> rows = ClubChangeEvent.DELETED.equals(event.getType())
+                ? List.of()
+                : clubRepository.findRecommendationRowsByIds(event.getClubIds());
+
+        writeLock.lock();
+        try {
+            Model current = model;
+            Set<Long> changed = new HashSet<>(event.getClubIds());
+            changed.forEach(current::remove);
+            for (Object[] row : rows) {
+                Map<String, Double> features = rawFeatures(row);
+                current.countTerms(features, 1);
+                current.names.put((Long) row[0], (String) row[1]);
+                current.add((Long) row[0], features);
+            }
+
+            // 受影响的邻域：变更社团本身、邻居表里含有变更社团的、以及变更后相似度足以进入其 top-K 的社团
+            Set<Long> dirty = new HashSet<>();
+            current.neighbors.forEach((owner, neighbors) -> {
+                if (neighbors.stream().anyMatch(neighbor -> changed.contains(neighbor.getClubId()))) {
+                    dirty.add(owner);
+                }
+            });
+            for (Object[] row : rows) {
+                Long clubId = (Long) row[0];
+                dirty.add(clubId);
+                current.scores(clubId).forEach((other, score) -> {
+                    List<SimilarClubDTO> neighbors = current.neighbors.getOrDefault(other, List.of());
+                    if (neighbors.size() < topK || score > neighbors.get(neighbors.size() - 1).getScore()) {
+                        dirty.add(other);
+                    }
+                });
+            }
+            dirty.removeIf(id -> !current.vectors.containsKey(id));
+            pool.submit(() -> dirty.parallelStream().forEach(current::recomputeNeighbors)).join();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Map<String, Double> rawFeatures(Object[] row) {
+        Map<String, Double> features = new HashMap<>();
+        String category = (String) row[2];
+        String tags = (String) row[3];
+        String campus = (String) row[4];
+        String description = (String) row[5];
+
+        if (category != null && !category.isBlank()) {
+            features.put("c:" + category.trim().toLowerCase(), CATEGORY_WEIGHT);
+        }
+        if (campus != null && !campus.isBlank()) {
+            features.put("p:" + campus.trim(), CAMPUS_WEIGHT);
+        }
+        if (tags != null) {
+            for (String tag : tags.split(",")) {
+                if (!tag.isBlank()) {
+                    features.put("t:" + tag.trim().toLowerCase(), TAG_WEIGHT);
+                }
+            }
+        }
+        // 简介词项先记词频，向量化时再乘 IDF
+        for (String term : terms(description)) {
+            features.merge("d:" + term, 1.0, Double::sum);
+        }
+        return features;
+    }
+
+    /**
+     * 简介分词：连续汉字取二元组（单字保留），字母数字按单词切分
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String normalized = text.toLowerCase();
+        int i = 0;
+        while (i < normalized.length()) {
+            char c = normalized.charAt(i);
+            int start = i;
+            if (Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN) {
+                while (i < normalized.length() && Character.UnicodeScript.of(normalized.charAt(i)) == Character.UnicodeScript.HAN) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    terms.add(normalized.substring(start, i));
+                }
+                for (int j = start; j + 1 < i; j++) {
+                    terms.add(normalized.substring(j, j + 2));
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                while (i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i))
+                        && Character.UnicodeScript.of(normalized.charAt(i)) != Character.UnicodeScript.HAN) {
+                    i++;
+                }
+                if (i - start >= 2) {
+                    terms.add(normalized.substring(start, i));
+                }
+            } else {
+                i++;
+            }
+        }
+        return terms;
+    }
+
+    private final class Model {
+        // 原始特征：文档频率按它增减（IDF 为 0 的词项不会出现在向量里）
+        final Map<Long, Map<String, Double>> features = new HashMap<>();
+        final Map<Long, Map<String, Double>> vectors = new HashMap<>();
+        final Map<String, Map<Long, Double>> postings = new HashMap<>();
+        final Map<String, Integer> documentFrequency = new HashMap<>();
+        final Map<Long, String> names = new ConcurrentHashMap<>();
+        final Map<Long, List<SimilarClubDTO>> neighbors = new ConcurrentHashMap<>();
+
+        void countTerms(Map<String, Double> features, int delta) {
+            for (String term : features.keySet()) {
+                if (term.startsWith("d:")) {
+                    documentFrequency.merge(term, delta, (a, b) -> a + b == 0 ? null : a + b);
+                }
+            }
+        }
+
+        Map<String, Double> vectorize(Map<String, Double> features) {
+            Map<String, Double> vector = new HashMap<>();
+            double documents = names.size();
+            features.forEach((term, value) -> {
+                double weight = value;
+                if (term.startsWith("d:")) {
+                    double idf = Math.log((documents + 1) / (documentFrequency.getOrDefault(term, 0) + 1.0));
+                    weight = (1 + Math.log(value)) * idf;
+                }
+                if (weight > 0) {
+                    vector.put(term, weight);
+                }
+            });
+            double norm = Math.sqrt(vector.values().stream().mapToDouble(w -> w * w).sum());
+            if (norm > 0) {
+                vector.replaceAll((term, weight) -> weight / norm);
+            }
+            return vector;
+        }
+
+        void add(Long clubId, Map<String, Double> raw) {
+            Map<String, Double> vector = vectorize(raw);
+            features.put(clubId, raw);
+            vectors.put(clubId, vector);
+            vector.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(clubId, weight));
+        }
+
+        void remove(Long clubId) {
+            Map<String, Double> vector = vectors.remove(clubId);
+            if (vector != null) {
+                for (String term : vector.keySet()) {
+                    Map<Long, Double> posting = postings.get(term);
+                    posting.remove(clubId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            Map<String, Double> raw = features.remove(clubId);
+            if (raw != null) {
+                countTerms(raw, -1);
+            }
+            names.remove(clubId);
+            neighbors.remove(clubId);
+        }
+
+        Map<Long, Double> scores(Long clubId) {
+            Map<Long, Double> scores = new HashMap<>();
+            vectors.getOrDefault(clubId, Map.of()).forEach((term, weight) ->
+                    postings.get(term).forEach((other, otherWeight) -> {
+                        if (!other.equals(clubId)) {
+                            scores.merge(other, weight * otherWeight, Double::sum);
+                        }
+                    }));
+            return scores;
+        }
+
+        void recomputeNeighbors(Long clubId) {
+            PriorityQueue<SimilarClubDTO> heap = new PriorityQueue<>(RANKING.reversed());
+            scores(clubId).forEach((other, score) -> {
+                heap.add(new SimilarClubDTO(other, names.get(other), Math.min(score, 1.0)));
+                if (heap.size() > topK) {
+                    heap.poll();
+                }
+            });
+            List<SimilarClubDTO> result = new ArrayList<>(heap);
+            result.sort(RANKING);
+            neighbors.put(clubId, List.copyOf(result));
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.club.service;
 
 import com.club.dto.*;
 import com.club.entity.Club;
+import com.club.service.export.ExportFormat;
 import org.springframework.data.domain.Page;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -12,9 +14,15 @@ public interface ClubService {
     // 创建社团
     Club createClub(ClubDTO clubDTO);
 
+    // 批量创建社团
+    int bulkCreateClubs(List<ClubDTO> clubDTOs);
+
     // 更新社团
     Club updateClub(Long id, ClubDTO clubDTO);
 
+    // 部分更新社团，返回新的版本号
+    long patchClub(Long id, ClubPatchDTO patchDTO);
+
     // 删除社团
     void deleteClub(Long id);
 
@@ -33,15 +41,27 @@ public interface ClubService {
     // 批量导入社团
     int importClubs(MultipartFile file);
 
+    // 按名称合并导入：新名称插入，已有社团内容有变化时更新，未变化的跳过
+    ImportResultDTO upsertClubs(MultipartFile file);
+
     // 导出社团
     byte[] exportClubs(ClubExportDTO exportDTO);
 
+    // 流式导出社团（CSV / NDJSON），直接写入输出流
+    void exportClubs(ClubExportDTO exportDTO, ExportFormat format, OutputStream out);
+
+    // 流式导出活动（clubId 为空时导出全部）
+    void exportActivities(Long clubId, ExportFormat format, OutputStream out);
+
     // 批量操作
     void batchOperation(List<Long> clubIds, String action);
 
     // 获取统计数据
     Map<String, Object> getStatistics();
 
+    // 获取指定校区的统计数据（campus 为空时同 getStatistics）
+    Map<String, Object> getStatistics(String campus);
+
     // 获取热门搜索标签
     List<String> getHotSearchTags();
 
@@ -50,4 +70,7 @@ public interface ClubService {
 
     // 获取校区列表
     List<String> getCampuses();
+
+    // 归档已关闭的校区：该校区社团整体标记删除（审计中保留快照），返回社团数
+    int archiveCampus(String campus);
 }
\ No newline at end of file
@@ -0,0 +1,251 @@
+package com.club.service;
+
+import com.club.dto.ClubChangeEvent;
+import com.club.dto.SuggestionDTO;
+import com.club.repository.ClubRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 社团名称 / 负责人搜索联想
+ * 内存前缀树，支持原文、拼音全拼、拼音首字母前缀匹配，按成员数排序。
+ * 启动时全量构建，之后根据社团变更事件增量更新。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClubSuggester {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry entry) -> entry.members).reversed()
+            .thenComparing(entry -> entry.text);
+
+    private static final HanyuPinyinOutputFormat PINYIN_FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        PINYIN_FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        PINYIN_FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        PINYIN_FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private final ClubRepository clubRepository;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Index index = new Index();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            Index rebuilt = new Index();
+            for (Object[] row : clubRepository.findSuggestionRows()) {
+                rebuilt.upsert(row);
+            }
+            index = rebuilt;
+            log.info("搜索联想索引构建完成，共 {} 个社团", rebuilt.clubs.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubChange(ClubChangeEvent event) {
+        if (event.getClubIds() == null || event.getClubIds().isEmpty()) {
+            // 没有 ID 表示整体失效（例如其他节点一次变更的社团过多），全量重建联想索引
+            rebuild();
+            return;
+        }
+        List<Object[]> rows = ClubChangeEvent.DELETED.equals(event.getType())
+                ? List.of()
+                : clubRepository.findSuggestionRowsByIds(event.getClubIds());
+
+        writeLock.lock();
+        try {
+            Index current = index;
+            Set<Long> missing = new HashSet<>(event.getClubIds());
+            for (Object[] row : rows) {
+                current.upsert(row);
+                missing.remove((Long) row[0]);
+            }
+            missing.forEach(current::remove);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 社团名称联想
+     */
+    public List<SuggestionDTO> suggestClubs(String keyword, int limit) {
+        List<SuggestionDTO> result = new ArrayList<>();
+        for (Entry entry : index.names.search(normalize(keyword), clamp(limit))) {
+            result.add(new SuggestionDTO(entry.clubId, entry.text, (int) entry.members));
+        }
+        return result;
+    }
+
+    /**
+     * 负责人联想（同名负责人合并，按其名下社团成员总数排序）
+     */
+    public List<String> suggestPresidents(String keyword, int limit) {
+        List<String> result = new ArrayList<>();
+        for (Entry entry : index.presidents.search(normalize(keyword), clamp(limit))) {
+            result.add(entry.text);
+        }
+        return result;
+    }
+
+    // 负数按 0 处理，上限为 MAX_SUGGESTIONS
+    private static int clamp(int limit) {
+        return Math.max(0, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    private static String normalize(String keyword) {
+        return keyword == null ? "" : StringUtils.deleteWhitespace(keyword).toLowerCase();
+    }
+
+    /**
+     * 一段文本对应的全部检索键：原文、拼音全拼、拼音首字母
+     */
+    static Set<String> keysOf(String text) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+
+        StringBuilder full = new StringBuilder();
+        StringBuilder initials = new StringBuilder();
+        for (char c : normalized.toCharArray()) {
+            String[] pinyin = null;
+            try {
+                pinyin = PinyinHelper.toHanyuPinyinStringArray(c, PINYIN_FORMAT);
+            } catch (BadHanyuPinyinOutputFormatCombination e) {
+                // 格式固定，不会发生
+            }
+            if (pinyin != null && pinyin.length > 0) {
+                // 多音字取第一个读音
+                full.append(pinyin[0]);
+                initials.append(pinyin[0].charAt(0));
+            } else {
+                full.append(c);
+                initials.append(c);
+            }
+        }
+        keys.add(full.toString());
+        keys.add(initials.toString());
+        return keys;
+    }
+
+    /**
+     * 联想条目，用对象身份判等，成员数变化时整体替换
+     */
+    private static final class Entry {
+        private final Long clubId;
+        private final String text;
+        private final long members;
+
+        private Entry(Long clubId, String text, long members) {
+            this.clubId = clubId;
+            this.text = text;
+            this.members = members;
+        }
+    }
+
+    private static final class IndexedClub {
+        private final Entry nameEntry;
+        private final String president;
+        private final long members;
+
+        private IndexedClub(Entry nameEntry, String president, long members) {
+            this.nameEntry = nameEntry;
+            this.president = president;
+            this.members = members;
+        }
+    }
+
+    /**
+     * 联想索引，只在写锁内修改
+     */
+    private static final class Index {
+        private final PrefixTrie<Entry> names = new PrefixTrie<>(MAX_SUGGESTIONS, RANKING);
+        private final PrefixTrie<Entry> presidents = new PrefixTrie<>(MAX_SUGGESTIONS, RANKING);
+        private final Map<Long, IndexedClub> clubs = new HashMap<>();
+        private final Map<String, Entry> presidentEntries = new HashMap<>();
+        private final Map<String, Long> presidentMembers = new HashMap<>();
+        private final Map<String, Integer> presidentClubCount = new HashMap<>();
+
+        private void upsert(Object[] row) {
+            Long id = (Long) row[0];
+            String name = (String) row[1];
+            String president = StringUtils.trimToNull((String) row[2]);
+            long members = row[3] != null ? ((Number) row[3]).longValue() : 0;
+
+            remove(id);
+            Entry nameEntry = new Entry(id, name, members);
+            for (String key : keysOf(name)) {
+                names.put(key, nameEntry);
+            }
+            clubs.put(id, new IndexedClub(nameEntry, president, members));
+            if (president != null) {
+                presidentClubCount.merge(president, 1, Integer::sum);
+                updatePresident(president, members);
+            }
+        }
+
+        private void remove(Long id) {
+            IndexedClub old = clubs.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (String key : keysOf(old.nameEntry.text)) {
+                names.remove(key, old.nameEntry);
+            }
+            if (old.president != null) {
+                presidentClubCount.merge(old.president, -1, Integer::sum);
+                updatePresident(old.president, -old.members);
+            }
+        }
+
+        private void updatePresident(String president, long memberDelta) {
+            Entry old = presidentEntries.remove(president);
+            Set<String> keys = keysOf(president);
+            if (old != null) {
+                keys.forEach(key -> presidents.remove(key, old));
+            }
+            long members = presidentMembers.merge(president, memberDelta, Long::sum);
+            if (presidentClubCount.getOrDefault(president, 0) <= 0) {
+                presidentMembers.remove(president);
+                presidentClubCount.remove(president);
+                return;
+            }
+            Entry entry = new Entry(null, president, members);
+            presidentEntries.put(president, entry);
+            keys.forEach(key -> presidents.put(key, entry));
+        }
+    }
+}
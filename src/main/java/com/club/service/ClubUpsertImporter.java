@@ -0,0 +1,277 @@
+package com.club.service;
+
+import com.club.entity.Club;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 按社团名称合并导入（upsert）
+ * 先按批读出同名社团并计算导入列的内容哈希，与导入行一致的直接跳过；
+ * 新社团用普通的多行 INSERT 写入，读取之后才被其他事务创建的同名社团会让这一批插入因唯一键冲突失败，
+ * 此时重新读取这一批并重新分类后再插入，不会把它误当成新社团覆盖掉；
+ * 确认已存在的社团用多行 INSERT ... ON DUPLICATE KEY UPDATE 只更新导入列。
+ * 每学期重复导入的名单大多没有变化，实际写库的行很少。
+ */
+@Service
+@Slf4j
+public class ClubUpsertImporter {
+
+    // 与 Club 上 @TableGenerator 的 pkColumnValue 保持一致
+    private static final String ID_SEQUENCE = "club";
+
+    private static final String INSERT_COLUMNS = "INSERT INTO club (id, name, category, description, president, contact, "
+            + "campus, established_date, current_members, max_members, status, activities_count, version, "
+            + "created_at, updated_at) VALUES ";
+    // 重新分类后仍冲突的次数上限（每次都有其他事务恰好插入同名社团）
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, 0, 100, 'active', 0, 0, ?, ?)";
+    // 只覆盖导入模板里的列，成员数、状态等运行数据保持不变
+    private static final String ON_DUPLICATE = " ON DUPLICATE KEY UPDATE category = VALUES(category), "
+            + "description = VALUES(description), president = VALUES(president), contact = VALUES(contact), "
+            + "campus = VALUES(campus), established_date = VALUES(established_date), "
+            + "version = version + 1, updated_at = VALUES(updated_at)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate idTransaction;
+
+    @Value("${app.import.upsert-batch-size:500}")
+    private int batchSize = 500;
+
+    public ClubUpsertImporter(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // 取号与 Hibernate 的表分配器一样在独立事务中进行，不随导入事务长时间锁住 id_generator
+        this.idTransaction = new TransactionTemplate(transactionManager);
+        this.idTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Result upsert(List<Club> rows) {
+        Result result = new Result();
+
+        // 同名以最后一行为准；名称唯一键不区分大小写，按小写归并
+        Map<String, Club> byName = new LinkedHashMap<>();
+        for (Club club : rows) {
+            if (StringUtils.isBlank(club.getName())) {
+                result.skipped++;
+                continue;
+            }
+            club.setName(club.getName().trim());
+            if (byName.put(nameKey(club.getName()), club) != null) {
+                result.skipped++;
+            }
+        }
+
+        List<String> names = byName.values().stream().map(Club::getName).collect(Collectors.toList());
+        Map<String, Existing> existing = new HashMap<>();
+        for (int from = 0; from < names.size(); from += batchSize) {
+            loadExisting(names.subList(from, Math.min(from + batchSize, names.size())), existing);
+        }
+
+        List<Club> inserts = new ArrayList<>();
+        for (Map.Entry<String, Club> entry : byName.entrySet()) {
+            classify(entry.getValue(), existing.get(entry.getKey()), result, inserts);
+        }
+
+        if (!inserts.isEmpty()) {
+            long nextId = allocateIds(inserts.size());
+            for (Club club : inserts) {
+                club.setId(nextId++);
+            }
+            for (int from = 0; from < inserts.size(); from += batchSize) {
+                insertNew(inserts.subList(from, Math.min(from + batchSize, inserts.size())), result);
+            }
+        }
+
+        List<Club> updated = result.updated;
+        for (int from = 0; from < updated.size(); from += batchSize) {
+            write(updated.subList(from, Math.min(from + batchSize, updated.size())), true);
+        }
+        log.info("合并导入完成：新增 {}，更新 {}，未变化 {}，跳过 {}",
+                result.inserted.size(), result.updated.size(), result.unchanged, result.skipped);
+        return result;
+    }
+
+    private void classify(Club club, Existing current, Result result, List<Club> inserts) {
+        if (current == null) {
+            inserts.add(club);
+        } else if (current.deleted) {
+            result.skipped++;
+        } else if (current.hash.equals(contentHash(club))) {
+            result.unchanged++;
+        } else {
+            club.setId(current.id);
+            club.setName(current.name);
+            club.setCreatedAt(current.createdAt);
+            result.updated.add(club);
+            result.previous.put(current.id, current.fields);
+        }
+    }
+
+    /**
+     * 插入一批新社团。唯一键冲突时整条语句不生效（事务内其余写入保留），
+     * 按名称重新读取这一批：已被其他事务创建的改为更新 / 未变化 / 跳过，其余的用原来分配的 ID 重新插入。
+     * 只有改为更新的行会空出预分配的 ID。
+     */
+    private void insertNew(List<Club> batch, Result result) {
+        List<Club> pending = batch;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            try {
+                write(pending, false);
+                result.inserted.addAll(pending);
+                return;
+            } catch (DuplicateKeyException e) {
+                Map<String, Existing> existing = new HashMap<>();
+                loadExisting(pending.stream().map(Club::getName).collect(Collectors.toList()), existing);
+                if (existing.isEmpty() || attempt >= MAX_INSERT_ATTEMPTS) {
+                    // 不是名称冲突（例如 ID 冲突），或反复冲突：交给调用方回滚整个导入
+                    throw e;
+                }
+                log.info("合并导入时 {} 个社团已被其他事务创建，重新分类", existing.size());
+                List<Club> stillNew = new ArrayList<>();
+                for (Club club : pending) {
+                    classify(club, existing.get(nameKey(club.getName())), result, stillNew);
+                }
+                pending = stillNew;
+            }
+        }
+    }
+
+    /**
+     * 导入列的取值（审计差异与内容哈希使用同一组字段）
+     */
+    public static Map<String, Object> importedFields(Club club) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("category", club.getCategory());
+        fields.put("description", club.getDescription());
+        fields.put("president", club.getPresident());
+        fields.put("contact", club.getContact());
+        fields.put("campus", club.getCampus());
+        fields.put("establishedDate", club.getEstablishedDate());
+        return fields;
+    }
+
+    // 空字符串与 NULL 视为相同：模板里的空单元格读出来是空字符串
+    static String contentHash(Club club) {
+        StringBuilder content = new StringBuilder();
+        for (Object value : importedFields(club).values()) {
+            content.append(value == null ? "" : value.toString().trim()).append('\u0001');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void loadExisting(List<String> names, Map<String, Existing> existing) {
+        // 原生 SQL 不受 @Where 限制，正在删除的社团也能查到（名称仍被占用）
+        jdbcTemplate.query("SELECT id, name, category, description, president, contact, campus, established_date, "
+                        + "created_at, deleted_at FROM club WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names), rs -> {
+                    Club club = new Club();
+                    club.setCategory(rs.getString("category"));
+                    club.setDescription(rs.getString("description"));
+                    club.setPresident(rs.getString("president"));
+                    club.setContact(rs.getString("contact"));
+                    club.setCampus(rs.getString("campus"));
+                    Date establishedDate = rs.getDate("established_date");
+                    club.setEstablishedDate(establishedDate != null ? establishedDate.toLocalDate() : null);
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+
+                    Existing current = new Existing();
+                    current.id = rs.getLong("id");
+                    current.name = rs.getString("name");
+                    current.createdAt = createdAt != null ? createdAt.toLocalDateTime() : null;
+                    current.deleted = rs.getTimestamp("deleted_at") != null;
+                    current.hash = contentHash(club);
+                    current.fields = importedFields(club);
+                    existing.put(nameKey(current.name), current);
+                });
+    }
+
+    private void write(List<Club> clubs, boolean existing) {
+        StringBuilder sql = new StringBuilder(INSERT_COLUMNS);
+        List<Object> args = new ArrayList<>(clubs.size() * 10);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Club club : clubs) {
+            sql.append(args.isEmpty() ? "" : ", ").append(ROW_PLACEHOLDERS);
+            args.add(club.getId());
+            args.add(club.getName());
+            args.add(club.getCategory());
+            args.add(club.getDescription());
+            args.add(club.getPresident());
+            args.add(club.getContact());
+            args.add(club.getCampus());
+            args.add(club.getEstablishedDate() != null ? Date.valueOf(club.getEstablishedDate()) : null);
+            args.add(club.getCreatedAt() != null ? Timestamp.valueOf(club.getCreatedAt()) : now);
+            args.add(now);
+        }
+        if (existing) {
+            sql.append(ON_DUPLICATE);
+        }
+        jdbcTemplate.getJdbcTemplate().update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * 一次取一段连续 ID，与 Hibernate 表分配器共用 id_generator（next_val 存已用过的最大值）
+     */
+    private long allocateIds(int count) {
+        Long first = idTransaction.execute(status -> {
+            Long lastUsed = jdbcTemplate.getJdbcTemplate().queryForObject(
+                    "SELECT next_val FROM id_generator WHERE seq_name = ? FOR UPDATE", Long.class, ID_SEQUENCE);
+            long start = (lastUsed != null ? lastUsed : 0) + 1;
+            jdbcTemplate.getJdbcTemplate().update(
+                    "UPDATE id_generator SET next_val = ? WHERE seq_name = ?", start + count - 1, ID_SEQUENCE);
+            return start;
+        });
+        return first;
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Existing {
+        private long id;
+        private String name;
+        private LocalDateTime createdAt;
+        private boolean deleted;
+        private String hash;
+        private Map<String, Object> fields;
+    }
+
+    @Getter
+    public static class Result {
+        private final List<Club> inserted = new ArrayList<>();
+        private final List<Club> updated = new ArrayList<>();
+        // 更新前的导入列取值，用于审计差异
+        private final Map<Long, Map<String, Object>> previous = new HashMap<>();
+        private int unchanged;
+        private int skipped;
+    }
+}
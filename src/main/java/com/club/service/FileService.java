@@ -12,6 +12,8 @@ import java.util.UUID;
 @Service
 public class FileService {
 
+    private static final String URL_PREFIX = "/uploads/";
+
     @Value("${app.file.upload-dir}")
     private String uploadDir;
 
@@ -36,10 +38,41 @@ public class FileService {
             Files.copy(file.getInputStream(), filePath);
 
             // 返回访问URL
-            return "/uploads/" + subDirectory + "/" + filename;
+            return URL_PREFIX + subDirectory + "/" + filename;
 
         } catch (IOException e) {
             throw new RuntimeException("文件上传失败", e);
         }
     }
+
+    /**
+     * 按 uploadFile 返回的访问URL删除文件，文件不存在或URL不在上传目录内时忽略
+     */
+    public boolean deleteFile(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(URL_PREFIX)) {
+            return false;
+        }
+        Path root = getUploadRoot();
+        Path filePath = root.resolve(fileUrl.substring(URL_PREFIX.length())).normalize();
+        if (!filePath.startsWith(root)) {
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            throw new RuntimeException("文件删除失败", e);
+        }
+    }
+
+    public Path getUploadRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 上传目录内文件对应的访问URL（与 uploadFile 的返回值一致）
+     */
+    public String toFileUrl(Path file) {
+        Path relative = getUploadRoot().relativize(file.toAbsolutePath().normalize());
+        return URL_PREFIX + relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.club.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 前缀树，每个节点预先保存其子树内排名前 K 的值
+ * 查询只需沿前缀走到对应节点直接返回，耗时与数据量无关；
+ * 写入时只重算被修改路径上的节点。读操作无锁，写操作串行。
+ */
+public class PrefixTrie<T> {
+
+    private final int topK;
+    private final Comparator<T> ranking;
+    private final Node<T> root = new Node<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public PrefixTrie(int topK, Comparator<T> ranking) {
+        this.topK = topK;
+        this.ranking = ranking;
+    }
+
+    public void put(String key, T value) {
+        writeLock.lock();
+        try {
+            List<Node<T>> path = new ArrayList<>(key.length() + 1);
+            Node<T> node = root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+                path.add(node);
+            }
+            node.values.add(value);
+            refresh(path);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(String key, T value) {
+        writeLock.lock();
+        try {
+            List<Node<T>> path = new ArrayList<>(key.length() + 1);
+            Node<T> node = root;
+            path.add(node);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+                path.add(node);
+            }
+            if (node == null || !node.values.remove(value)) {
+                return;
+            }
+            // 清理空叶子节点
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node<T> current = path.get(i);
+                if (!current.values.isEmpty() || !current.children.isEmpty()) {
+                    break;
+                }
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+                path.remove(i);
+            }
+            refresh(path);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<T> search(String prefix, int limit) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<T> top = node.top;
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    // 自底向上重算：节点的前 K = 自身值 + 各子节点前 K 合并后取前 K
+    private void refresh(List<Node<T>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node<T> node = path.get(i);
+            Set<T> seen = new HashSet<>(node.values);
+            List<T> candidates = new ArrayList<>(node.values);
+            for (Node<T> child : node.children.values()) {
+                for (T value : child.top) {
+                    if (seen.add(value)) {
+                        candidates.add(value);
+                    }
+                }
+            }
+            candidates.sort(ranking);
+            node.top = List.copyOf(candidates.size() > topK ? candidates.subList(0, topK) : candidates);
+        }
+    }
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new ConcurrentHashMap<>();
+        private final Set<T> values = new HashSet<>(); // 只在写锁内访问
+        private volatile List<T> top = List.of();
+    }
+}
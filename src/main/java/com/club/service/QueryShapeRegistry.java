@@ -0,0 +1,71 @@
+package com.club.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 查询形状统计
+ * 社团列表/快速搜索的筛选条件被归并成有限的几种形状（同一形状生成同一条 SQL），
+ * 这里记录每种形状实际访问数据库的次数，用来观察形状数量是否有界、预编译语句能否复用。
+ */
+@Component
+public class QueryShapeRegistry {
+
+    // 超过上限的新形状只计入总数，不再单独登记，防止统计本身无限增长
+    @Value("${app.query-shapes.max-tracked:1000}")
+    private int maxTracked = 1000;
+
+    private final Map<String, LongAdder> shapes = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder firstSeen = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    public void record(String shape) {
+        executions.increment();
+        LongAdder counter = shapes.get(shape);
+        if (counter == null) {
+            if (shapes.size() >= maxTracked) {
+                untracked.increment();
+                return;
+            }
+            counter = shapes.computeIfAbsent(shape, key -> {
+                firstSeen.increment();
+                return new LongAdder();
+            });
+        }
+        counter.increment();
+    }
+
+    public int distinctShapes() {
+        return shapes.size();
+    }
+
+    /**
+     * 命中率：执行次数中复用已出现过的形状的比例
+     */
+    public double hitRate() {
+        long total = executions.sum();
+        return total == 0 ? 0 : (double) (total - firstSeen.sum() - untracked.sum()) / total;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .forEach(e -> counts.put(e.getKey(), e.getValue().sum()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("executions", executions.sum());
+        result.put("distinctShapes", shapes.size());
+        result.put("untracked", untracked.sum());
+        result.put("hitRate", hitRate());
+        result.put("shapes", counts);
+        return result;
+    }
+}
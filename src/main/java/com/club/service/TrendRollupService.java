@@ -0,0 +1,281 @@
+package com.club.service;
+
+import com.club.dto.TrendPointDTO;
+import com.club.entity.Club;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * 趋势统计预聚合（stat_rollup 表）
+ * 写操作时增量更新，定时压缩任务按源表重算最近的时间桶以纠正偏差（也覆盖不经过本服务写入的活动数据），
+ * 趋势接口只读预聚合表，五年的按月数据也只有几百行。
+ */
+@Service
+@Slf4j
+public class TrendRollupService {
+
+    public static final String CLUBS_CREATED = "clubs_created";
+    public static final String MEMBERS_TOTAL = "members_total";
+    public static final String ACTIVITIES = "activities";
+
+    private static final Set<String> METRICS = Set.of(CLUBS_CREATED, MEMBERS_TOTAL, ACTIVITIES);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate recomputeTransaction;
+
+    @Value("${app.rollup.recompute-months:2}")
+    private int recomputeMonths;
+
+    @Value("${app.rollup.recompute-weeks-back:2}")
+    private int recomputeWeeksBack;
+
+    @Value("${app.rollup.recompute-weeks-ahead:12}")
+    private int recomputeWeeksAhead;
+
+    public TrendRollupService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // 回填和压缩由本类内部调用，@Transactional 不经过代理不会生效，改用编程式事务
+        this.recomputeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public List<TrendPointDTO> getTrend(String metric, LocalDate from, LocalDate to, String dimension) {
+        if (!METRICS.contains(metric)) {
+            throw new RuntimeException("不支持的趋势指标: " + metric);
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusMonths(12);
+
+        StringBuilder sql = new StringBuilder("SELECT bucket, dimension, metric_value FROM stat_rollup "
+                + "WHERE metric = ? AND bucket BETWEEN ? AND ?");
+        List<Object> args = new ArrayList<>(List.of(metric, Date.valueOf(start), Date.valueOf(end)));
+        if (dimension != null) {
+            sql.append(" AND dimension = ?");
+            args.add(dimension);
+        }
+        sql.append(" ORDER BY bucket, dimension");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new TrendPointDTO(
+                rs.getDate("bucket").toLocalDate(), rs.getString("dimension"), rs.getLong("metric_value")),
+                args.toArray());
+    }
+
+    // ---------- 增量更新（在调用方事务内执行） ----------
+
+    public void recordClubCreated(Club club) {
+        addTo(CLUBS_CREATED, monthOf(createdDate(club)), dimensionOf(club.getCategory()), 1);
+        addToExisting(MEMBERS_TOTAL, monthOf(LocalDate.now()), "", memberCount(club));
+    }
+
+    public void recordClubDeleted(Club club) {
+        addTo(CLUBS_CREATED, monthOf(createdDate(club)), dimensionOf(club.getCategory()), -1);
+        addToExisting(MEMBERS_TOTAL, monthOf(LocalDate.now()), "", -memberCount(club));
+    }
+
+    public void recordCategoryChanged(Club club, String oldCategory) {
+        if (!Objects.equals(oldCategory, club.getCategory())) {
+            LocalDate month = monthOf(createdDate(club));
+            addTo(CLUBS_CREATED, month, dimensionOf(oldCategory), -1);
+            addTo(CLUBS_CREATED, month, dimensionOf(club.getCategory()), 1);
+        }
+    }
+
+    /**
+     * 批量写入（批量创建、导入、批量删除）：先在内存中按 (月份, 类别) 汇总，整批只执行一条多行 upsert，
+     * 语句数与行数无关
+     */
+    public void recordClubsCreated(Collection<Club> clubs) {
+        recordClubs(clubs, 1);
+    }
+
+    public void recordClubsDeleted(Collection<Club> clubs) {
+        recordClubs(clubs, -1);
+    }
+
+    /**
+     * @param oldCategories 社团 ID 到修改前类别的映射
+     */
+    public void recordCategoriesChanged(Collection<Club> clubs, Map<Long, String> oldCategories) {
+        Map<List<Object>, Long> deltas = new LinkedHashMap<>();
+        for (Club club : clubs) {
+            String oldCategory = oldCategories.get(club.getId());
+            if (!Objects.equals(oldCategory, club.getCategory())) {
+                LocalDate month = monthOf(createdDate(club));
+                deltas.merge(List.of(month, dimensionOf(oldCategory)), -1L, Long::sum);
+                deltas.merge(List.of(month, dimensionOf(club.getCategory())), 1L, Long::sum);
+            }
+        }
+        addAll(CLUBS_CREATED, deltas);
+    }
+
+    public void recordMembersChanged(long delta) {
+        addToExisting(MEMBERS_TOTAL, monthOf(LocalDate.now()), "", delta);
+    }
+
+    private void addTo(String metric, LocalDate bucket, String dimension, long delta) {
+        jdbcTemplate.update("INSERT INTO stat_rollup (metric, bucket, dimension, metric_value) VALUES (?, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE metric_value = metric_value + VALUES(metric_value)",
+                metric, Date.valueOf(bucket), dimension, delta);
+    }
+
+    private void recordClubs(Collection<Club> clubs, long sign) {
+        Map<List<Object>, Long> deltas = new LinkedHashMap<>();
+        long members = 0;
+        for (Club club : clubs) {
+            deltas.merge(List.of(monthOf(createdDate(club)), dimensionOf(club.getCategory())), sign, Long::sum);
+            members += memberCount(club);
+        }
+        addAll(CLUBS_CREATED, deltas);
+        addToExisting(MEMBERS_TOTAL, monthOf(LocalDate.now()), "", sign * members);
+    }
+
+    private void addAll(String metric, Map<List<Object>, Long> deltas) {
+        StringBuilder sql = new StringBuilder("INSERT INTO stat_rollup (metric, bucket, dimension, metric_value) VALUES ");
+        List<Object> args = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                sql.append(args.isEmpty() ? "" : ", ").append("(?, ?, ?, ?)");
+                args.addAll(List.of(metric, Date.valueOf((LocalDate) key.get(0)), key.get(1), delta));
+            }
+        });
+        if (!args.isEmpty()) {
+            sql.append(" ON DUPLICATE KEY UPDATE metric_value = metric_value + VALUES(metric_value)");
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    // 快照类指标：本月快照尚未生成时不凭空创建，留给压缩任务按源表生成
+    private void addToExisting(String metric, LocalDate bucket, String dimension, long delta) {
+        if (delta != 0) {
+            jdbcTemplate.update("UPDATE stat_rollup SET metric_value = metric_value + ? "
+                    + "WHERE metric = ? AND bucket = ? AND dimension = ?", delta, metric, Date.valueOf(bucket), dimension);
+        }
+    }
+
+    // ---------- 压缩与回填 ----------
+
+    /**
+     * 预聚合表为空时（首次上线）按源表全量回填一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stat_rollup", Integer.class);
+        if (rows != null && rows == 0) {
+            log.info("趋势预聚合表为空，开始全量回填");
+            recompute(null, null, null, null);
+        }
+    }
+
+    /**
+     * 定时压缩：只重算最近几个月 / 前后若干周的桶，扫描范围有界
+     */
+    @Scheduled(cron = "${app.rollup.compaction-cron:0 5 * * * *}")
+    public void compact() {
+        LocalDate today = LocalDate.now();
+        recompute(monthOf(today).minusMonths(recomputeMonths - 1L), monthOf(today).plusMonths(1),
+                weekOf(today).minusWeeks(recomputeWeeksBack), weekOf(today).plusWeeks(recomputeWeeksAhead + 1L));
+    }
+
+    /**
+     * 用源表数据替换指定范围内的桶，范围为空表示全量
+     * 删除与重新插入在同一事务内，读者看不到清空的桶，中途失败时保留原来的数据
+     */
+    public void recompute(LocalDate monthFrom, LocalDate monthTo, LocalDate weekFrom, LocalDate weekTo) {
+        recomputeTransaction.executeWithoutResult(status -> {
+            replace(CLUBS_CREATED, monthFrom, monthTo,
+                    countByDay("club", "created_at", "category", List.of("deleted_at IS NULL"), monthFrom, monthTo),
+                    TrendRollupService::monthOf);
+            replace(ACTIVITIES, weekFrom, weekTo,
+                    countByDay("activity", "activity_time", "activity_type", List.of(), weekFrom, weekTo),
+                    TrendRollupService::weekOf);
+
+            // 成员总数没有历史记录，只能生成当月快照
+            Long members = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(current_members), 0) FROM club WHERE deleted_at IS NULL", Long.class);
+            LocalDate month = monthOf(LocalDate.now());
+            jdbcTemplate.update("DELETE FROM stat_rollup WHERE metric = ? AND bucket = ?", MEMBERS_TOTAL, Date.valueOf(month));
+            jdbcTemplate.update("INSERT INTO stat_rollup (metric, bucket, dimension, metric_value) VALUES (?, ?, '', ?)",
+                    MEMBERS_TOTAL, Date.valueOf(month), members);
+        });
+    }
+
+    private List<Object[]> countByDay(String table, String timeColumn, String dimensionColumn, List<String> filters,
+                                      LocalDate from, LocalDate to) {
+        List<String> conditions = new ArrayList<>(filters);
+        List<Object> args = new ArrayList<>();
+        if (from == null) {
+            conditions.add(timeColumn + " IS NOT NULL");
+        } else {
+            conditions.add(timeColumn + " >= ?");
+            conditions.add(timeColumn + " < ?");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+            args.add(Timestamp.valueOf(to.atStartOfDay()));
+        }
+        String sql = "SELECT DATE(" + timeColumn + ") AS stat_day, " + dimensionColumn + " AS dim, COUNT(*) AS cnt FROM "
+                + table + " WHERE " + String.join(" AND ", conditions)
+                + " GROUP BY DATE(" + timeColumn + "), " + dimensionColumn;
+        return jdbcTemplate.query(sql, (rs, rowNum) ->
+                new Object[]{rs.getDate("stat_day").toLocalDate(), rs.getString("dim"), rs.getLong("cnt")}, args.toArray());
+    }
+
+    private void replace(String metric, LocalDate from, LocalDate to, List<Object[]> dailyCounts,
+                         UnaryOperator<LocalDate> bucketOf) {
+        Map<List<Object>, Long> buckets = new HashMap<>();
+        for (Object[] row : dailyCounts) {
+            List<Object> key = List.of(bucketOf.apply((LocalDate) row[0]), dimensionOf((String) row[1]));
+            buckets.merge(key, (Long) row[2], Long::sum);
+        }
+
+        if (from == null) {
+            jdbcTemplate.update("DELETE FROM stat_rollup WHERE metric = ?", metric);
+        } else {
+            jdbcTemplate.update("DELETE FROM stat_rollup WHERE metric = ? AND bucket >= ? AND bucket < ?",
+                    metric, Date.valueOf(from), Date.valueOf(to));
+        }
+        List<Object[]> rows = new ArrayList<>();
+        buckets.forEach((key, count) -> rows.add(new Object[]{metric, Date.valueOf((LocalDate) key.get(0)), key.get(1), count}));
+        jdbcTemplate.batchUpdate("INSERT INTO stat_rollup (metric, bucket, dimension, metric_value) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private static LocalDate monthOf(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    private static LocalDate weekOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static LocalDate createdDate(Club club) {
+        LocalDateTime createdAt = club.getCreatedAt();
+        return createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+    }
+
+    private static String dimensionOf(String value) {
+        return Objects.toString(value, "");
+    }
+
+    private static long memberCount(Club club) {
+        return club.getCurrentMembers() != null ? club.getCurrentMembers() : 0;
+    }
+}
@@ -0,0 +1,168 @@
+package com.club.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 上传目录垃圾回收
+ * 逐个遍历文件（不一次性列出整个目录），按批与 club.logo_url 比对，
+ * 超过宽限期仍未被引用的文件移入隔离目录，隔离期满后才真正删除。
+ * 已标记删除但尚未清理的社团仍算作引用，其 Logo 由 ClubDeletionService 处理。
+ */
+@Service
+@Slf4j
+public class UploadSweeper {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final FileService fileService;
+    private final Counter quarantinedFiles;
+    private final Counter reclaimedBytes;
+
+    @Value("${app.upload-gc.enabled:true}")
+    private boolean enabled;
+
+    // 只扫描由 club.logo_url 引用的子目录
+    @Value("${app.upload-gc.directories:club_logos}")
+    private List<String> directories;
+
+    @Value("${app.upload-gc.quarantine-dir:./uploads-quarantine}")
+    private String quarantineDir;
+
+    // 新上传的文件可能还没随社团一起提交，宽限期内不处理
+    @Value("${app.upload-gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${app.upload-gc.quarantine-days:7}")
+    private long quarantineDays;
+
+    @Value("${app.upload-gc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.upload-gc.batch-pause-ms:100}")
+    private long batchPauseMs;
+
+    public UploadSweeper(NamedParameterJdbcTemplate jdbcTemplate, FileService fileService, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fileService = fileService;
+        this.quarantinedFiles = Counter.builder("club.uploads.quarantined").baseUnit("files").register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("club.uploads.reclaimed").baseUnit("bytes").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload-gc.interval-ms:3600000}", initialDelayString = "${app.upload-gc.initial-delay-ms:600000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (String directory : directories) {
+                Path dir = fileService.getUploadRoot().resolve(directory).normalize();
+                if (Files.isDirectory(dir)) {
+                    quarantineUnreferenced(dir);
+                }
+            }
+            purgeQuarantine();
+        } catch (IOException e) {
+            log.warn("上传目录回收失败", e);
+        }
+    }
+
+    void quarantineUnreferenced(Path dir) throws IOException {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(graceHours));
+        List<Path> batch = new ArrayList<>(batchSize);
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && attrs.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                    batch.add(file);
+                    if (batch.size() >= batchSize) {
+                        flush(batch);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Path> batch) throws IOException {
+        List<String> urls = batch.stream().map(fileService::toFileUrl).toList();
+        Set<String> referenced = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT logo_url FROM club WHERE logo_url IN (:urls)", new MapSqlParameterSource("urls", urls), String.class));
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (!referenced.contains(urls.get(i))) {
+                quarantine(batch.get(i));
+            }
+        }
+        batch.clear();
+        pause();
+    }
+
+    private void quarantine(Path file) throws IOException {
+        Path target = quarantineRoot().resolve(fileService.getUploadRoot().relativize(file.toAbsolutePath().normalize()));
+        Files.createDirectories(target.getParent());
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+        // 修改时间记为进入隔离的时间，隔离期从此刻开始计算
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        quarantinedFiles.increment();
+        log.info("隔离未引用的上传文件: {}", fileService.toFileUrl(file));
+    }
+
+    void purgeQuarantine() throws IOException {
+        Path root = quarantineRoot();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofDays(quarantineDays));
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && attrs.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                    Files.delete(file);
+                    reclaimedBytes.increment(attrs.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private Path quarantineRoot() {
+        return Paths.get(quarantineDir).toAbsolutePath().normalize();
+    }
+
+    private void pause() throws IOException {
+        if (batchPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("上传目录回收被中断", e);
+        }
+    }
+}
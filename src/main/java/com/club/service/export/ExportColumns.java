@@ -0,0 +1,72 @@
+package com.club.service.export;
+
+import com.club.entity.Activity;
+import com.club.entity.Club;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 导出列定义：列名 -> 取值函数，避免逐行反射
+ */
+public final class ExportColumns {
+
+    public static final Map<String, Function<Club, Object>> CLUB = new LinkedHashMap<>();
+    public static final Map<String, Function<Activity, Object>> ACTIVITY = new LinkedHashMap<>();
+
+    static {
+        CLUB.put("id", Club::getId);
+        CLUB.put("name", Club::getName);
+        CLUB.put("category", Club::getCategory);
+        CLUB.put("description", Club::getDescription);
+        CLUB.put("president", Club::getPresident);
+        CLUB.put("contact", Club::getContact);
+        CLUB.put("campus", Club::getCampus);
+        CLUB.put("status", Club::getStatus);
+        CLUB.put("currentMembers", Club::getCurrentMembers);
+        CLUB.put("maxMembers", Club::getMaxMembers);
+        CLUB.put("activitiesCount", Club::getActivitiesCount);
+        CLUB.put("establishedDate", Club::getEstablishedDate);
+        CLUB.put("tags", Club::getTags);
+        CLUB.put("logoUrl", Club::getLogoUrl);
+        CLUB.put("wechatGroup", Club::getWechatGroup);
+        CLUB.put("qqGroup", Club::getQqGroup);
+        CLUB.put("createdAt", Club::getCreatedAt);
+        CLUB.put("updatedAt", Club::getUpdatedAt);
+
+        ACTIVITY.put("id", Activity::getId);
+        ACTIVITY.put("title", Activity::getTitle);
+        ACTIVITY.put("clubId", Activity::getClubId);
+        ACTIVITY.put("clubName", Activity::getClubName);
+        ACTIVITY.put("activityType", Activity::getActivityType);
+        ACTIVITY.put("status", Activity::getStatus);
+        ACTIVITY.put("activityTime", Activity::getActivityTime);
+        ACTIVITY.put("location", Activity::getLocation);
+        ACTIVITY.put("organizer", Activity::getOrganizer);
+        ACTIVITY.put("currentParticipants", Activity::getCurrentParticipants);
+        ACTIVITY.put("maxParticipants", Activity::getMaxParticipants);
+        ACTIVITY.put("description", Activity::getDescription);
+        ACTIVITY.put("createdAt", Activity::getCreatedAt);
+    }
+
+    private ExportColumns() {
+    }
+
+    /**
+     * 按请求的列名挑出取值函数，未指定时导出全部列
+     */
+    public static <T> List<Function<T, Object>> select(Map<String, Function<T, Object>> available, List<String> columns) {
+        List<Function<T, Object>> getters = new ArrayList<>();
+        for (String column : columns) {
+            Function<T, Object> getter = available.get(column);
+            if (getter == null) {
+                throw new RuntimeException("不支持的导出列: " + column);
+            }
+            getters.add(getter);
+        }
+        return getters;
+    }
+}
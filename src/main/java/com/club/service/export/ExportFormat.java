@@ -0,0 +1,47 @@
+package com.club.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 流式导出格式
+ */
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public TabularWriter open(OutputStream out) throws IOException {
+        switch (this) {
+            case NDJSON:
+                return new NdjsonTabularWriter(out);
+            case CSV:
+            default:
+                return new CsvTabularWriter(out);
+        }
+    }
+
+    public static ExportFormat of(String format) {
+        for (ExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new RuntimeException("不支持的导出格式: " + format);
+    }
+}
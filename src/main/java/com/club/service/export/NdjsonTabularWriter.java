@@ -0,0 +1,60 @@
+package com.club.service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * NDJSON 写出器：每行一个 JSON 对象，字段名取表头
+ */
+public class NdjsonTabularWriter implements TabularWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator generator;
+    private String[] columns;
+
+    public NdjsonTabularWriter(OutputStream out) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(new BufferedOutputStream(out, 64 * 1024));
+        // 去掉默认的空格分隔符，行与行之间由 writeRow 写换行
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void writeHeader(List<String> columns) {
+        this.columns = columns.toArray(new String[0]);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            generator.writeFieldName(columns[i]);
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Integer || value instanceof Long) {
+                generator.writeNumber(((Number) value).longValue());
+            } else if (value instanceof BigDecimal) {
+                generator.writeNumber((BigDecimal) value);
+            } else if (value instanceof Boolean) {
+                generator.writeBoolean((Boolean) value);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
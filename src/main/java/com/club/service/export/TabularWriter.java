@@ -0,0 +1,15 @@
+package com.club.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 流式表格写出器，逐行写到输出流，不在内存中保留数据
+ */
+public interface TabularWriter extends Closeable {
+
+    void writeHeader(List<String> columns) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+}
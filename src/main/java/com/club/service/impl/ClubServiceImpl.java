@@ -2,25 +2,47 @@ package com.club.service.impl;
 
 import com.club.dto.*;
 import com.club.entity.Club;
+import com.club.entity.Activity;
+import com.club.repository.ActivityRepository;
 import com.club.repository.ClubRepository;
+import com.club.service.AuditTrail;
+import com.club.service.ClubExcelCodec;
+import com.club.service.ClubListQuery;
+import com.club.service.ClubNearCache;
+import com.club.service.ClubQueryCache;
 import com.club.service.ClubService;
+import com.club.service.ClubUpsertImporter;
 import com.club.service.FileService;
+import com.club.service.QueryShapeRegistry;
+import com.club.service.TrendRollupService;
+import com.club.service.export.ExportColumns;
+import com.club.service.export.ExportFormat;
+import com.club.service.export.TabularWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.data.domain.*;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.Predicate;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
-import java.time.LocalDate;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -28,14 +50,23 @@ import java.util.stream.Collectors;
 public class ClubServiceImpl implements ClubService {
 
     private final ClubRepository clubRepository;
+    private final ActivityRepository activityRepository;
+    private final EntityManager entityManager;
+    private final ClubQueryCache queryCache;
+    private final ClubNearCache nearCache;
     private final FileService fileService;
+    private final ObjectProvider<ClubExcelCodec> excelCodec;
+    private final TrendRollupService rollupService;
+    private final AuditTrail auditTrail;
+    private final QueryShapeRegistry queryShapes;
+    private final ClubUpsertImporter upsertImporter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public Club createClub(ClubDTO clubDTO) {
         // 检查名称是否重复
-        if (clubRepository.existsByName(clubDTO.getName())) {
-            throw new RuntimeException("社团名称已存在");
-        }
+        checkNamesAvailable(List.of(clubDTO.getName()));
 
         Club club = new Club();
         copyDtoToEntity(clubDTO, club);
@@ -53,20 +84,73 @@ public class ClubServiceImpl implements ClubService {
             club.setTags(String.join(",", clubDTO.getTags()));
         }
 
-        return clubRepository.save(club);
+        Club saved = clubRepository.save(club);
+        rollupService.recordClubCreated(saved);
+        auditTrail.record(AuditTrail.CREATE, saved.getId(), null, AuditTrail.snapshot(saved));
+        publishChange(ClubChangeEvent.CREATED, List.of(saved.getId()),
+                statsDelta(1, isActive(saved) ? 1 : 0, 0));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public int bulkCreateClubs(List<ClubDTO> clubDTOs) {
+        if (clubDTOs == null || clubDTOs.isEmpty()) {
+            return 0;
+        }
+
+        // 一次查询校验名称重复，避免逐条查询
+        Set<String> names = new HashSet<>();
+        for (ClubDTO dto : clubDTOs) {
+            if (StringUtils.isBlank(dto.getName())) {
+                throw new RuntimeException("社团名称不能为空");
+            }
+            if (!names.add(nameKey(dto.getName()))) {
+                throw new RuntimeException("社团名称重复: " + dto.getName());
+            }
+        }
+        checkNamesAvailable(clubDTOs.stream().map(ClubDTO::getName).collect(Collectors.toList()));
+
+        List<Club> clubs = new ArrayList<>(clubDTOs.size());
+        for (ClubDTO dto : clubDTOs) {
+            Club club = new Club();
+            copyDtoToEntity(dto, club);
+            club.setCurrentMembers(0);
+            club.setActivitiesCount(0);
+            club.setLogoUrl(dto.getLogoUrl());
+            if (dto.getTags() != null && !dto.getTags().isEmpty()) {
+                club.setTags(String.join(",", dto.getTags()));
+            }
+            clubs.add(club);
+        }
+
+        // ID 由表分配器预取，saveAll 会按 hibernate.jdbc.batch_size 合并为批量 INSERT
+        List<Club> saved = clubRepository.saveAll(clubs);
+        rollupService.recordClubsCreated(saved);
+        for (Club club : saved) {
+            auditTrail.record(AuditTrail.CREATE, club.getId(), null, AuditTrail.snapshot(club));
+        }
+        long active = saved.stream().filter(this::isActive).count();
+        publishChange(ClubChangeEvent.CREATED, saved.stream().map(Club::getId).collect(Collectors.toList()),
+                statsDelta(saved.size(), active, 0));
+        return saved.size();
     }
 
     @Override
+    @Transactional
     public Club updateClub(Long id, ClubDTO clubDTO) {
         Club club = clubRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("社团不存在"));
 
-        // 检查名称是否重复（排除自己）
-        if (!club.getName().equals(clubDTO.getName()) &&
-                clubRepository.existsByName(clubDTO.getName())) {
-            throw new RuntimeException("社团名称已存在");
+        // 检查名称是否重复（排除自己，只改大小写时名称仍归自己所有）
+        if (!club.getName().equalsIgnoreCase(clubDTO.getName())) {
+            checkNamesAvailable(List.of(clubDTO.getName()));
         }
 
+        boolean wasActive = isActive(club);
+        long membersBefore = memberCount(club);
+        String oldCategory = club.getCategory();
+        Map<String, Object> before = AuditTrail.snapshot(club);
         copyDtoToEntity(clubDTO, club);
 
         // 处理Logo上传
@@ -80,181 +164,315 @@ public class ClubServiceImpl implements ClubService {
             club.setTags(String.join(",", clubDTO.getTags()));
         }
 
-        return clubRepository.save(club);
+        Club saved = clubRepository.save(club);
+        rollupService.recordCategoryChanged(saved, oldCategory);
+        auditTrail.record(AuditTrail.UPDATE, id, before, AuditTrail.snapshot(saved));
+        publishChange(ClubChangeEvent.UPDATED, List.of(id),
+                statsDelta(0, (isActive(saved) ? 1 : 0) - (wasActive ? 1 : 0), memberCount(saved) - membersBefore));
+        return saved;
     }
 
     @Override
+    @Transactional
+    public long patchClub(Long id, ClubPatchDTO patchDTO) {
+        Map<String, Object> changes = collectPatchChanges(patchDTO);
+
+        if (patchDTO.getVersion() != null) {
+            // 客户端带了版本号：一条条件 UPDATE 完成，不需要先查询
+            int updated;
+            try {
+                updated = clubRepository.updateFieldsIfVersion(id, patchDTO.getVersion(), changes);
+            } catch (DataIntegrityViolationException e) {
+                // 只有名称有唯一键：区分被待删除社团占用的情况
+                if (changes.get("name") instanceof String name) {
+                    checkNamesAvailable(List.of(name));
+                }
+                throw new RuntimeException("社团名称已存在");
+            }
+            if (updated == 0) {
+                if (!clubRepository.existsById(id)) {
+                    throw new RuntimeException("社团不存在");
+                }
+                throw new OptimisticLockingFailureException("社团已被他人修改，请刷新后重试");
+            }
+            // 未读取旧值：修改了状态时活跃数的增量未知，不带统计增量（客户端重新拉取统计）；
+            // 其余字段不影响统计。类别变化由趋势压缩任务按源表纠正
+            auditTrail.recordNewValues(AuditTrail.PATCH, id, changes);
+            publishChange(ClubChangeEvent.UPDATED, List.of(id),
+                    changes.containsKey("status") ? null : statsDelta(0, 0, 0));
+            return patchDTO.getVersion() + 1;
+        }
+
+        Club club = clubRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("社团不存在"));
+        if (changes.containsKey("name") && !club.getName().equalsIgnoreCase((String) changes.get("name"))) {
+            checkNamesAvailable(List.of((String) changes.get("name")));
+        }
+
+        boolean wasActive = isActive(club);
+        long membersBefore = memberCount(club);
+        String oldCategory = club.getCategory();
+        Map<String, Object> before = AuditTrail.snapshot(club);
+        BeanWrapper wrapper = new BeanWrapperImpl(club);
+        changes.forEach(wrapper::setPropertyValue);
+
+        // @DynamicUpdate 只写被修改的列，@Version 在提交时校验并发修改
+        Club saved = clubRepository.saveAndFlush(club);
+        rollupService.recordCategoryChanged(saved, oldCategory);
+        auditTrail.record(AuditTrail.PATCH, id, before, AuditTrail.snapshot(saved));
+        publishChange(ClubChangeEvent.UPDATED, List.of(id),
+                statsDelta(0, (isActive(saved) ? 1 : 0) - (wasActive ? 1 : 0), memberCount(saved) - membersBefore));
+        return saved.getVersion();
+    }
+
+    @Override
+    @Transactional
     public void deleteClub(Long id) {
         Club club = clubRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("社团不存在"));
-        clubRepository.delete(club);
+        clubRepository.markDeleted(List.of(id), LocalDateTime.now());
+        rollupService.recordClubDeleted(club);
+        auditTrail.record(AuditTrail.DELETE, id, AuditTrail.snapshot(club), null);
+        publishChange(ClubChangeEvent.DELETED, List.of(id),
+                statsDelta(-1, isActive(club) ? -1 : 0, -memberCount(club)));
     }
 
+    // 近端缓存命中时不访问数据库，因此不开启服务层事务。
+    // 与查询缓存一样只缓存脱离持久化上下文的副本，每个调用方再拿到自己的一份
     @Override
     public Club getClubById(Long id) {
-        return clubRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("社团不存在"));
+        Club club = nearCache.get(ClubNearCache.CLUB, id,
+                () -> clubRepository.findById(id).map(ClubServiceImpl::detachedCopy).orElse(null));
+        if (club == null) {
+            throw new RuntimeException("社团不存在");
+        }
+        return detachedCopy(club);
     }
 
+    // 不开启服务层事务：查询缓存在只读事务中加载，等待合并结果的请求不会占用数据库连接。
+    // 缓存里只放脱离持久化上下文的副本，每个调用方再拿到自己的一份，修改返回值不会影响其他请求
     @Override
     public Page<Club> getClubs(ClubQueryDTO queryDTO) {
-        Specification<Club> spec = buildSpecification(queryDTO);
-        Pageable pageable = buildPageable(queryDTO);
-
-        return clubRepository.findAll(spec, pageable);
+        ClubListQuery listQuery = ClubListQuery.list(queryDTO);
+        Pageable pageable = PageRequest.of(queryDTO.getPage() - 1, queryDTO.getSize());
+        if (listQuery.isAlwaysEmpty()) {
+            return Page.empty(pageable);
+        }
+        // 缓存键直接用渲染后的查询和参数，等价的筛选条件自然落到同一个键上
+        CachedPage cached = queryCache.get(Arrays.asList("list", pageable.getPageNumber(), pageable.getPageSize(),
+                listQuery.getJpql(), listQuery.getParameters()), () -> {
+            queryShapes.record(listQuery.getShape());
+            Page<Club> page = clubRepository.findPage(listQuery.getJpql(), listQuery.getCountJpql(),
+                    listQuery.getParameters(), pageable);
+            return new CachedPage(detachedCopies(page.getContent()), page.getTotalElements());
+        });
+        return new PageImpl<>(detachedCopies(cached.content()), pageable, cached.total());
     }
 
     @Override
     public List<Club> quickSearch(QuickSearchDTO searchDTO) {
-        Specification<Club> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            // 关键词搜索
-            if (StringUtils.isNotBlank(searchDTO.getKeyword())) {
-                String keyword = "%" + searchDTO.getKeyword().toLowerCase() + "%";
-                Predicate namePredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("name")), keyword);
-                Predicate presidentPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("president")), keyword);
-                Predicate descriptionPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("description")), keyword);
-                predicates.add(criteriaBuilder.or(namePredicate, presidentPredicate, descriptionPredicate));
-            }
-
-            // 类别筛选
-            if (StringUtils.isNotBlank(searchDTO.getCategory())) {
-                predicates.add(criteriaBuilder.equal(root.get("category"), searchDTO.getCategory()));
-            }
+        ClubListQuery searchQuery = ClubListQuery.quickSearch(searchDTO);
+        int limit = searchDTO.getLimit() != null ? searchDTO.getLimit() : 6;
+        List<Club> cached = queryCache.get(Arrays.asList("quick", searchQuery.getJpql(), searchQuery.getParameters(), limit), () -> {
+            queryShapes.record(searchQuery.getShape());
+            return detachedCopies(clubRepository.findList(searchQuery.getJpql(), searchQuery.getParameters(), limit));
+        });
+        return detachedCopies(cached);
+    }
 
-            // 状态筛选
-            if (StringUtils.isNotBlank(searchDTO.getStatus())) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), searchDTO.getStatus()));
-            }
+    private static List<Club> detachedCopies(List<Club> clubs) {
+        return clubs.stream().map(ClubServiceImpl::detachedCopy).toList();
+    }
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+    private static Club detachedCopy(Club club) {
+        Club copy = new Club();
+        BeanUtils.copyProperties(club, copy);
+        return copy;
+    }
 
-        // 排序
-        Sort sort = buildSort(searchDTO.getSort());
+    // 分页结果的缓存形式：不可变的副本列表和总数
+    private record CachedPage(List<Club> content, long total) {
+    }
 
-        List<Club> clubs = clubRepository.findAll(spec, sort);
+    @Override
+    @Transactional(readOnly = true)
+    public boolean checkClubName(String name) {
+        return clubRepository.findNameOwners(List.of(nameKey(name))).isEmpty();
+    }
 
-        // 限制数量
-        int limit = searchDTO.getLimit() != null ? searchDTO.getLimit() : 6;
-        if (clubs.size() > limit) {
-            clubs = clubs.subList(0, limit);
+    /**
+     * 名称校验与唯一键一致：不区分大小写，包括待删除的社团。
+     * 被待删除社团占用的名称单独提示，清理完成后即可使用
+     */
+    private void checkNamesAvailable(Collection<String> names) {
+        List<String> existing = new ArrayList<>();
+        List<String> pendingDeletion = new ArrayList<>();
+        for (Object[] owner : clubRepository.findNameOwners(names.stream().map(ClubServiceImpl::nameKey).toList())) {
+            (owner[1] != null ? pendingDeletion : existing).add((String) owner[0]);
+        }
+        if (!existing.isEmpty()) {
+            throw new RuntimeException("社团名称已存在: " + String.join(",", existing));
+        }
+        if (!pendingDeletion.isEmpty()) {
+            throw new RuntimeException("名称被待删除社团占用，请等待删除完成后再使用: " + String.join(",", pendingDeletion));
         }
-
-        return clubs;
     }
 
-    @Override
-    public boolean checkClubName(String name) {
-        return !clubRepository.existsByName(name);
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
     }
 
+    // 整个导入在一个事务内：趋势预聚合按整批汇总后写入一次，失败时已写入的行一并回滚
     @Override
+    @Transactional
     public int importClubs(MultipartFile file) {
         int count = 0;
-        try (InputStream inputStream = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-
-            // 跳过标题行
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
+        List<Long> importedIds = new ArrayList<>();
+        List<Club> imported = new ArrayList<>();
+        try (InputStream inputStream = file.getInputStream()) {
+            for (Club club : excelCodec.getObject().readClubs(inputStream)) {
+                Club saved = clubRepository.save(club);
+                auditTrail.record(AuditTrail.IMPORT, saved.getId(), null, AuditTrail.snapshot(saved));
+                imported.add(saved);
+                importedIds.add(saved.getId());
+                count++;
             }
-
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                Club club = parseRowToClub(row);
-                if (club != null) {
-                    clubRepository.save(club);
-                    count++;
-                }
-            }
-
         } catch (Exception e) {
             log.error("导入社团失败", e);
             throw new RuntimeException("导入失败: " + e.getMessage());
         }
+        rollupService.recordClubsCreated(imported);
+        if (count > 0) {
+            long active = imported.stream().filter(this::isActive).count();
+            long members = imported.stream().mapToLong(this::memberCount).sum();
+            publishChange(ClubChangeEvent.CREATED, importedIds, statsDelta(count, active, members));
+        }
         return count;
     }
 
     @Override
-    public byte[] exportClubs(ClubExportDTO exportDTO) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("社团列表");
-
-            // 创建标题行
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"社团名称", "类别", "负责人", "当前成员数", "成立日期", "状态", "校区", "联系方式"};
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-
-                CellStyle style = workbook.createCellStyle();
-                Font font = workbook.createFont();
-                font.setBold(true);
-                style.setFont(font);
-                cell.setCellStyle(style);
-            }
+    @Transactional
+    public ImportResultDTO upsertClubs(MultipartFile file) {
+        List<Club> rows;
+        try (InputStream inputStream = file.getInputStream()) {
+            rows = excelCodec.getObject().readClubs(inputStream);
+        } catch (Exception e) {
+            log.error("导入社团失败", e);
+            throw new RuntimeException("导入失败: " + e.getMessage());
+        }
+
+        ClubUpsertImporter.Result result = upsertImporter.upsert(rows);
+        rollupService.recordClubsCreated(result.getInserted());
+        for (Club club : result.getInserted()) {
+            auditTrail.record(AuditTrail.IMPORT, club.getId(), null, AuditTrail.snapshot(club));
+        }
+        Map<Long, String> oldCategories = new HashMap<>();
+        for (Club club : result.getUpdated()) {
+            Map<String, Object> before = result.getPrevious().get(club.getId());
+            oldCategories.put(club.getId(), (String) before.get("category"));
+            auditTrail.record(AuditTrail.IMPORT, club.getId(), before, ClubUpsertImporter.importedFields(club));
+        }
+        rollupService.recordCategoriesChanged(result.getUpdated(), oldCategories);
+
+        if (!result.getInserted().isEmpty()) {
+            int inserted = result.getInserted().size();
+            publishChange(ClubChangeEvent.CREATED, result.getInserted().stream().map(Club::getId).collect(Collectors.toList()),
+                    statsDelta(inserted, inserted, 0));
+        }
+        if (!result.getUpdated().isEmpty()) {
+            publishChange(ClubChangeEvent.UPDATED, result.getUpdated().stream().map(Club::getId).collect(Collectors.toList()),
+                    statsDelta(0, 0, 0));
+        }
+        return new ImportResultDTO(result.getInserted().size(), result.getUpdated().size(),
+                result.getUnchanged(), result.getSkipped());
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public byte[] exportClubs(ClubExportDTO exportDTO) {
+        try {
             // 查询数据
             ClubQueryDTO queryDTO = new ClubQueryDTO();
             queryDTO.setKeyword(exportDTO.getKeyword());
             // ... 设置其他查询条件
 
             Page<Club> clubs = getClubs(queryDTO);
+            return excelCodec.getObject().writeClubs(clubs.getContent());
 
-            // 填充数据
-            int rowNum = 1;
-            for (Club club : clubs.getContent()) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(club.getName());
-                row.createCell(1).setCellValue(club.getCategory());
-                row.createCell(2).setCellValue(club.getPresident());
-                row.createCell(3).setCellValue(club.getCurrentMembers());
-                row.createCell(4).setCellValue(club.getEstablishedDate().toString());
-                row.createCell(5).setCellValue(club.getStatus());
-                row.createCell(6).setCellValue(club.getCampus());
-                row.createCell(7).setCellValue(club.getContact());
-            }
+        } catch (Exception e) {
+            log.error("导出社团失败", e);
+            throw new RuntimeException("导出失败: " + e.getMessage());
+        }
+    }
 
-            // 自动调整列宽
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+    @Override
+    @Transactional(readOnly = true)
+    public void exportClubs(ClubExportDTO exportDTO, ExportFormat format, OutputStream out) {
+        List<String> columns = exportDTO.getColumns() == null || exportDTO.getColumns().isEmpty()
+                ? new ArrayList<>(ExportColumns.CLUB.keySet())
+                : exportDTO.getColumns();
+        List<Function<Club, Object>> getters = ExportColumns.select(ExportColumns.CLUB, columns);
+
+        try (Stream<Club> clubs = clubRepository.streamAll(buildExportSpecification(exportDTO));
+             TabularWriter writer = format.open(out)) {
+            writer.writeHeader(columns);
+            Iterator<Club> iterator = clubs.iterator();
+            while (iterator.hasNext()) {
+                writeAndDetach(writer, iterator.next(), getters);
             }
+        } catch (Exception e) {
+            log.error("流式导出社团失败", e);
+            throw new RuntimeException("导出失败: " + e.getMessage());
+        }
+    }
 
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-
+    @Override
+    @Transactional(readOnly = true)
+    public void exportActivities(Long clubId, ExportFormat format, OutputStream out) {
+        List<String> columns = new ArrayList<>(ExportColumns.ACTIVITY.keySet());
+        List<Function<Activity, Object>> getters = ExportColumns.select(ExportColumns.ACTIVITY, columns);
+
+        try (Stream<Activity> activities = clubId != null
+                ? activityRepository.streamByClubId(clubId) : activityRepository.streamAll();
+             TabularWriter writer = format.open(out)) {
+            writer.writeHeader(columns);
+            Iterator<Activity> iterator = activities.iterator();
+            while (iterator.hasNext()) {
+                writeAndDetach(writer, iterator.next(), getters);
+            }
         } catch (Exception e) {
-            log.error("导出社团失败", e);
+            log.error("流式导出活动失败", e);
             throw new RuntimeException("导出失败: " + e.getMessage());
         }
     }
 
     @Override
+    @Transactional
     public void batchOperation(List<Long> clubIds, String action) {
         List<Club> clubs = clubRepository.findAllById(clubIds);
 
+        long activeBefore = clubs.stream().filter(this::isActive).count();
+
         switch (action.toLowerCase()) {
             case "activate":
-                clubs.forEach(club -> club.setStatus("active"));
+                clubs.forEach(club -> setStatusAudited(club, "active", AuditTrail.ACTIVATE));
                 clubRepository.saveAll(clubs);
+                publishChange(ClubChangeEvent.BATCH, clubIds, statsDelta(0, clubs.size() - activeBefore, 0));
                 break;
             case "deactivate":
-                clubs.forEach(club -> club.setStatus("inactive"));
+                clubs.forEach(club -> setStatusAudited(club, "inactive", AuditTrail.DEACTIVATE));
                 clubRepository.saveAll(clubs);
+                publishChange(ClubChangeEvent.BATCH, clubIds, statsDelta(0, -activeBefore, 0));
                 break;
             case "delete":
-                // 使用自定义的删除方法
-                clubRepository.deleteByIds(clubIds);
+                // 只标记删除，关联数据由后台分块清理，避免一条大 DELETE 长时间锁行
+                clubRepository.markDeleted(clubIds, LocalDateTime.now());
+                rollupService.recordClubsDeleted(clubs);
+                for (Club club : clubs) {
+                    auditTrail.record(AuditTrail.DELETE, club.getId(), AuditTrail.snapshot(club), null);
+                }
+                long members = clubs.stream().mapToLong(this::memberCount).sum();
+                publishChange(ClubChangeEvent.DELETED, clubIds, statsDelta(-clubs.size(), -activeBefore, -members));
                 break;
             default:
                 throw new RuntimeException("不支持的操作: " + action);
@@ -263,6 +481,18 @@ public class ClubServiceImpl implements ClubService {
 
     @Override
     public Map<String, Object> getStatistics() {
+        return nearCache.get(ClubNearCache.STATISTICS, "all", this::computeStatistics);
+    }
+
+    @Override
+    public Map<String, Object> getStatistics(String campus) {
+        if (StringUtils.isBlank(campus)) {
+            return getStatistics();
+        }
+        return nearCache.get(ClubNearCache.STATISTICS, "campus:" + campus, () -> computeCampusStatistics(campus));
+    }
+
+    private Map<String, Object> computeStatistics() {
         Map<String, Object> stats = new HashMap<>();
 
         // 社团总数
@@ -283,7 +513,7 @@ public class ClubServiceImpl implements ClubService {
         for (Object[] row : categoryStats) {
             categoryMap.put((String) row[0], (Long) row[1]);
         }
-        stats.put("categoryStats", categoryMap);
+        stats.put("categoryStats", Collections.unmodifiableMap(categoryMap));
 
         // 成员规模分布
         Map<String, Long> sizeDistribution = new HashMap<>();
@@ -291,9 +521,38 @@ public class ClubServiceImpl implements ClubService {
         sizeDistribution.put("50-100", clubRepository.countByMemberRange(50, 100));
         sizeDistribution.put("100-200", clubRepository.countByMemberRange(100, 200));
         sizeDistribution.put("200+", clubRepository.countByMemberRange(200, null));
-        stats.put("sizeDistribution", sizeDistribution);
+        stats.put("sizeDistribution", Collections.unmodifiableMap(sizeDistribution));
 
-        return stats;
+        return Collections.unmodifiableMap(stats);
+    }
+
+    // 口径与全校统计一致，但只扫描该校区的索引区间
+    private Map<String, Object> computeCampusStatistics(String campus) {
+        Object[] row = clubRepository.summarizeCampus(campus).get(0);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("campus", campus);
+        stats.put("totalClubs", toLong(row[0]));
+        stats.put("activeClubs", toLong(row[1]));
+        stats.put("totalMembers", toLong(row[2]));
+
+        Map<String, Long> categoryMap = new HashMap<>();
+        for (Object[] category : clubRepository.countByCategoryInCampus(campus)) {
+            categoryMap.put((String) category[0], (Long) category[1]);
+        }
+        stats.put("categoryStats", Collections.unmodifiableMap(categoryMap));
+
+        Map<String, Long> sizeDistribution = new HashMap<>();
+        sizeDistribution.put("0-50", toLong(row[3]));
+        sizeDistribution.put("50-100", toLong(row[4]));
+        sizeDistribution.put("100-200", toLong(row[5]));
+        sizeDistribution.put("200+", toLong(row[6]));
+        stats.put("sizeDistribution", Collections.unmodifiableMap(sizeDistribution));
+
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
     }
 
     @Override
@@ -311,10 +570,50 @@ public class ClubServiceImpl implements ClubService {
 
     @Override
     public List<String> getCampuses() {
-        return clubRepository.findDistinctCampuses();
+        return nearCache.get(ClubNearCache.CAMPUSES, "all", () -> List.copyOf(clubRepository.findDistinctCampuses()));
+    }
+
+    @Override
+    @Transactional
+    public int archiveCampus(String campus) {
+        if (StringUtils.isBlank(campus)) {
+            throw new RuntimeException("校区不能为空");
+        }
+        List<Long> clubIds = clubRepository.findIdsByCampus(campus);
+        if (!clubIds.isEmpty()) {
+            // 与批量删除同一路径：立即对读取不可见，关联数据由后台分块清理
+            batchOperation(clubIds, "delete");
+        }
+        log.info("已归档校区 {}，社团 {} 个", campus, clubIds.size());
+        return clubIds.size();
     }
 
     // 辅助方法
+    private void publishChange(String type, List<Long> clubIds, Map<String, Long> statsDelta) {
+        eventPublisher.publishEvent(ClubChangeEvent.of(type, clubIds, statsDelta));
+    }
+
+    private Map<String, Long> statsDelta(long totalClubs, long activeClubs, long totalMembers) {
+        Map<String, Long> delta = new HashMap<>();
+        if (totalClubs != 0) delta.put("totalClubs", totalClubs);
+        if (activeClubs != 0) delta.put("activeClubs", activeClubs);
+        if (totalMembers != 0) delta.put("totalMembers", totalMembers);
+        return delta;
+    }
+
+    private void setStatusAudited(Club club, String status, String auditAction) {
+        auditTrail.record(auditAction, club.getId(), Collections.singletonMap("status", club.getStatus()), Map.of("status", status));
+        club.setStatus(status);
+    }
+
+    private boolean isActive(Club club) {
+        return "active".equals(club.getStatus());
+    }
+
+    private long memberCount(Club club) {
+        return club.getCurrentMembers() != null ? club.getCurrentMembers() : 0;
+    }
+
     private void copyDtoToEntity(ClubDTO dto, Club entity) {
         entity.setName(dto.getName());
         entity.setDescription(dto.getDescription());
@@ -329,155 +628,58 @@ public class ClubServiceImpl implements ClubService {
         entity.setQqGroup(dto.getQqGroup());
     }
 
-    private Specification<Club> buildSpecification(ClubQueryDTO queryDTO) {
+    // 写出一行后立即把实体从持久化上下文中移除，保证内存占用不随行数增长
+    private <T> void writeAndDetach(TabularWriter writer, T entity, List<Function<T, Object>> getters) throws Exception {
+        Object[] values = new Object[getters.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getters.get(i).apply(entity);
+        }
+        writer.writeRow(values);
+        entityManager.detach(entity);
+    }
+
+    private Specification<Club> buildExportSpecification(ClubExportDTO exportDTO) {
+        String keyword = normalizeKeyword(exportDTO.getKeyword());
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
-
-            // 关键词搜索
-            if (StringUtils.isNotBlank(queryDTO.getKeyword())) {
-                String keyword = "%" + queryDTO.getKeyword().toLowerCase() + "%";
-                Predicate namePredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("name")), keyword);
-                Predicate presidentPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("president")), keyword);
-                Predicate descriptionPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("description")), keyword);
-                predicates.add(criteriaBuilder.or(namePredicate, presidentPredicate, descriptionPredicate));
+            if (keyword != null) {
+                String pattern = "%" + keyword + "%";
+                predicates.add(criteriaBuilder.or(
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), pattern),
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("president")), pattern),
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), pattern)));
             }
-
-            // 类别筛选
-            if (StringUtils.isNotBlank(queryDTO.getCategory())) {
-                predicates.add(criteriaBuilder.equal(root.get("category"), queryDTO.getCategory()));
-            }
-
-            // 状态筛选
-            if (StringUtils.isNotBlank(queryDTO.getStatus())) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), queryDTO.getStatus()));
-            }
-
-            // 日期范围筛选
-            if (queryDTO.getStartDate() != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(
-                        root.get("establishedDate"), queryDTO.getStartDate()));
-            }
-            if (queryDTO.getEndDate() != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(
-                        root.get("establishedDate"), queryDTO.getEndDate()));
-            }
-
-            // 成员数量筛选
-            if (queryDTO.getMinMembers() != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(
-                        root.get("currentMembers"), queryDTO.getMinMembers()));
+            if (exportDTO.getCategories() != null && !exportDTO.getCategories().isEmpty()) {
+                predicates.add(root.get("category").in(exportDTO.getCategories()));
             }
-            if (queryDTO.getMaxMembers() != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(
-                        root.get("currentMembers"), queryDTO.getMaxMembers()));
-            }
-
-            // 负责人筛选
-            if (StringUtils.isNotBlank(queryDTO.getPresident())) {
-                predicates.add(criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("president")),
-                        "%" + queryDTO.getPresident().toLowerCase() + "%"));
-            }
-
-            // 仅显示活跃社团
-            if (Boolean.TRUE.equals(queryDTO.getOnlyActive())) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), "active"));
-            }
-
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
 
-    private Pageable buildPageable(ClubQueryDTO queryDTO) {
-        Sort sort = Sort.by(Sort.Direction.fromString(queryDTO.getSortOrder()), queryDTO.getSortField());
-        return PageRequest.of(queryDTO.getPage() - 1, queryDTO.getSize(), sort);
-    }
-
-    private Sort buildSort(String sortOption) {
-        String field;
-        Sort.Direction direction;
-
-        switch (sortOption) {
-            case "members":
-                field = "currentMembers";
-                direction = Sort.Direction.DESC;
-                break;
-            case "date":
-                field = "establishedDate";
-                direction = Sort.Direction.DESC;
-                break;
-            case "activities":
-                field = "activitiesCount";
-                direction = Sort.Direction.DESC;
-                break;
-            case "name":
-            default:
-                field = "name";
-                direction = Sort.Direction.ASC;
-                break;
-        }
-
-        return Sort.by(direction, field);
-    }
-
-    private Club parseRowToClub(Row row) {
-        try {
-            Club club = new Club();
-
-            // 读取Excel行数据并设置到Club对象
-            club.setName(getCellValue(row.getCell(0)));
-            club.setCategory(getCellValue(row.getCell(1)));
-            club.setDescription(getCellValue(row.getCell(2)));
-            club.setPresident(getCellValue(row.getCell(3)));
-            club.setContact(getCellValue(row.getCell(4)));
-            club.setCampus(getCellValue(row.getCell(5)));
-
-            // 解析日期
-            Cell dateCell = row.getCell(6);
-            if (dateCell != null) {
-                if (dateCell.getCellType() == CellType.NUMERIC) {
-                    club.setEstablishedDate(dateCell.getLocalDateTimeCellValue().toLocalDate());
-                } else {
-                    club.setEstablishedDate(LocalDate.parse(getCellValue(dateCell)));
-                }
+    private Map<String, Object> collectPatchChanges(ClubPatchDTO dto) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (dto.getName() != null) {
+            if (StringUtils.isBlank(dto.getName())) {
+                throw new RuntimeException("社团名称不能为空");
             }
-
-            // 设置默认值
-            club.setCurrentMembers(0);
-            club.setMaxMembers(100);
-            club.setStatus("active");
-            club.setActivitiesCount(0);
-            club.setCreatedAt(LocalDateTime.now());
-            club.setUpdatedAt(LocalDateTime.now());
-
-            return club;
-        } catch (Exception e) {
-            log.warn("解析行数据失败", e);
-            return null;
+            changes.put("name", dto.getName());
         }
+        if (dto.getDescription() != null) changes.put("description", dto.getDescription());
+        if (dto.getCategory() != null) changes.put("category", dto.getCategory());
+        if (dto.getEstablishedDate() != null) changes.put("establishedDate", dto.getEstablishedDate());
+        if (dto.getMaxMembers() != null) changes.put("maxMembers", dto.getMaxMembers());
+        if (dto.getPresident() != null) changes.put("president", dto.getPresident());
+        if (dto.getContact() != null) changes.put("contact", dto.getContact());
+        if (dto.getCampus() != null) changes.put("campus", dto.getCampus());
+        if (dto.getStatus() != null) changes.put("status", dto.getStatus());
+        if (dto.getWechatGroup() != null) changes.put("wechatGroup", dto.getWechatGroup());
+        if (dto.getQqGroup() != null) changes.put("qqGroup", dto.getQqGroup());
+        if (dto.getTags() != null) changes.put("tags", String.join(",", dto.getTags()));
+        if (dto.getLogoUrl() != null) changes.put("logoUrl", dto.getLogoUrl());
+        return changes;
     }
 
-    private String getCellValue(Cell cell) {
-        if (cell == null) return "";
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toString();
-                } else {
-                    return String.valueOf((int) cell.getNumericCellValue());
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return "";
-        }
+    private String normalizeKeyword(String keyword) {
+        return StringUtils.isBlank(keyword) ? null : keyword.toLowerCase();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,3 @@
+-- 每个变更事件只写一行失效日志，受影响的社团 ID 以逗号分隔存放；
+-- NULL 表示整体失效（未指定社团或 ID 过多）。旧记录仍使用 club_id 列。
+ALTER TABLE cache_invalidation_log ADD COLUMN club_ids TEXT NULL;
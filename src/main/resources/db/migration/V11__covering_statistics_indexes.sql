@@ -0,0 +1,11 @@
+-- 全校统计（社团总数、成员总数、成员规模分布、按类别分组）都带 @Where 的 deleted_at IS NULL 条件，
+-- 原来的索引不含 deleted_at，优化器只能回表或直接全表扫描。
+-- 把 deleted_at 补到索引末尾，这些统计只读索引（覆盖索引扫描 / 范围扫描），不再出现 type=ALL。
+
+-- 成员数范围 / 按成员数排序 / 成员规模分布 / 成员总数 / 社团总数
+DROP INDEX idx_club_current_members ON club;
+CREATE INDEX idx_club_members_deleted ON club (current_members, deleted_at);
+
+-- 只按类别筛选 / 按类别分组统计
+DROP INDEX idx_club_category_members ON club;
+CREATE INDEX idx_club_category_members_deleted ON club (category, current_members, deleted_at);
@@ -0,0 +1,52 @@
+-- 基线：与实体映射一致的表结构
+-- 已由 ddl-auto=update 建好表的库会被 baseline 到此版本，不会重复执行
+
+CREATE TABLE IF NOT EXISTS club (
+    id               BIGINT       NOT NULL,
+    name             VARCHAR(255) NOT NULL,
+    description      TEXT,
+    category         VARCHAR(255),
+    established_date DATE,
+    current_members  INT,
+    max_members      INT,
+    president        VARCHAR(255),
+    contact          VARCHAR(255),
+    campus           VARCHAR(255),
+    status           VARCHAR(255),
+    activities_count INT,
+    logo_url         VARCHAR(255),
+    wechat_group     VARCHAR(255),
+    qq_group         VARCHAR(255),
+    tags             VARCHAR(255),
+    version          BIGINT       NOT NULL DEFAULT 0,
+    created_at       DATETIME(6),
+    updated_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_club_name UNIQUE (name)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS activity (
+    id                   BIGINT       NOT NULL,
+    title                VARCHAR(255) NOT NULL,
+    description          TEXT,
+    club_id              BIGINT,
+    club_name            VARCHAR(255),
+    activity_time        DATETIME(6),
+    location             VARCHAR(255),
+    organizer            VARCHAR(255),
+    current_participants INT,
+    max_participants     INT,
+    activity_type        VARCHAR(255),
+    status               VARCHAR(255),
+    cover_image          VARCHAR(255),
+    created_at           DATETIME(6),
+    updated_at           DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- 表分配器（见实体上的 @TableGenerator）
+CREATE TABLE IF NOT EXISTS id_generator (
+    seq_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (seq_name)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
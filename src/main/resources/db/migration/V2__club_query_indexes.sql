@@ -0,0 +1,26 @@
+-- buildSpecification / buildSort / 统计查询用到的筛选与排序路径
+
+-- 状态 + 类别筛选，按成员数排序（也覆盖只按状态筛选）
+CREATE INDEX idx_club_status_category_members ON club (status, category, current_members);
+-- 只按类别筛选 / 按类别分组统计
+CREATE INDEX idx_club_category_members ON club (category, current_members);
+-- 按状态筛选、按名称排序（列表默认排序）
+CREATE INDEX idx_club_status_name ON club (status, name);
+-- 成立日期范围 / 按成立日期排序
+CREATE INDEX idx_club_established_date ON club (established_date);
+-- 成员数范围 / 按成员数排序 / 成员规模分布 / 成员总数
+CREATE INDEX idx_club_current_members ON club (current_members);
+-- 按活动数排序
+CREATE INDEX idx_club_activities_count ON club (activities_count);
+-- 负责人筛选
+CREATE INDEX idx_club_president ON club (president);
+-- 校区列表
+CREATE INDEX idx_club_campus ON club (campus);
+
+-- 不区分大小写的名称查找：不依赖列的排序规则，且可走索引
+ALTER TABLE club ADD COLUMN name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(name)) STORED;
+CREATE INDEX idx_club_name_lower ON club (name_lower);
+
+-- 活动按社团、按时间查询
+CREATE INDEX idx_activity_club_id ON activity (club_id);
+CREATE INDEX idx_activity_activity_time ON activity (activity_time);
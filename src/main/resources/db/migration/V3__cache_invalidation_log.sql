@@ -0,0 +1,10 @@
+-- 集群近端缓存失效日志：每次写操作在同一事务内追加，各节点按主键增量轮询
+CREATE TABLE cache_invalidation_log (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    origin     VARCHAR(64) NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    club_id    BIGINT,
+    created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (id),
+    INDEX idx_cache_invalidation_created_at (created_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,13 @@
+-- 趋势统计预聚合表：按指标 + 时间桶 + 维度存放计数，趋势接口只读这张表
+-- metric: clubs_created（按月、按类别）、members_total（按月快照）、activities（按周、按活动类型）
+CREATE TABLE stat_rollup (
+    metric       VARCHAR(32) NOT NULL,
+    bucket       DATE        NOT NULL,
+    dimension    VARCHAR(64) NOT NULL DEFAULT '',
+    metric_value BIGINT      NOT NULL DEFAULT 0,
+    updated_at   DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (metric, bucket, dimension)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- 压缩任务按创建时间范围重算最近的桶
+CREATE INDEX idx_club_created_at ON club (created_at);
@@ -0,0 +1,6 @@
+-- 删除社团时先打标记（立即对读取不可见），关联数据由后台分块清理
+ALTER TABLE club ADD COLUMN deleted_at DATETIME(6) NULL;
+-- 清理任务按标记时间取待清理社团
+CREATE INDEX idx_club_deleted_at ON club (deleted_at);
+-- 清理 Logo 前确认没有其他社团引用同一文件
+CREATE INDEX idx_club_logo_url ON club (logo_url);
@@ -0,0 +1,13 @@
+-- 社团变更审计：字段级差异，后台批量写入
+CREATE TABLE club_audit_log (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    club_id    BIGINT      NOT NULL,
+    action     VARCHAR(16) NOT NULL,
+    operator   VARCHAR(64) NOT NULL,
+    changes    TEXT        NOT NULL,
+    created_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- 按社团倒序翻页（keyset）
+CREATE INDEX idx_audit_club_id ON club_audit_log (club_id, id);
@@ -0,0 +1,15 @@
+-- 社团成员名册：每个学生在每个社团最多一条记录
+CREATE TABLE club_member (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    club_id    BIGINT      NOT NULL,
+    student_id BIGINT      NOT NULL,
+    role       VARCHAR(16) NOT NULL DEFAULT 'member',
+    joined_at  DATETIME(3) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_member_club_student (club_id, student_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- 名册按入社时间 keyset 翻页
+CREATE INDEX idx_member_club_joined ON club_member (club_id, joined_at, id);
+-- 查询某个学生加入的社团
+CREATE INDEX idx_member_student ON club_member (student_id);
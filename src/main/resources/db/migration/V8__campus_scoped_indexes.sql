@@ -0,0 +1,12 @@
+-- 校区范围的查询：campus + deleted_at 作为前导列，每个校区的在用社团在索引中是一段连续区间，
+-- 限定校区的列表、搜索和统计只扫描这一段（效果等同于按校区分区后的分区裁剪）。
+-- 没有采用 MySQL 的 LIST 分区：分区表要求每个唯一键都包含分区列，
+-- 会破坏 uk_club_name 的全局唯一性（名称校验、按名称导入都依赖它）。
+
+-- 校区内按状态/类别筛选、按成员数排序；同时覆盖校区统计（计数、成员总数、按类别分组）
+CREATE INDEX idx_club_campus_status_category ON club (campus, deleted_at, status, category, current_members);
+-- 校区内默认按名称排序的列表
+CREATE INDEX idx_club_campus_name ON club (campus, deleted_at, name);
+
+-- 校区列表走上面索引的松散扫描，单列索引不再需要
+DROP INDEX idx_club_campus ON club;
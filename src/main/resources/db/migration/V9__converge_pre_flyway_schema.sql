@@ -0,0 +1,28 @@
+-- 收敛 Flyway 之前由 ddl-auto=update 建出的旧库
+-- 旧库的表在 V1 执行前就已存在，CREATE TABLE IF NOT EXISTS 不会补列，这里按需补齐；
+-- 新建的库上每一步都是空操作，可重复执行。
+
+-- 乐观锁版本号（旧数据补 0）
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE club ADD COLUMN version BIGINT NOT NULL DEFAULT 0',
+        'SELECT 1')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'club' AND column_name = 'version');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 表分配器：从现有最大 ID 之后开始取号（next_val 存的是已用过的最大值），只会往大调
+CREATE TABLE IF NOT EXISTS id_generator (
+    seq_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (seq_name)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+INSERT INTO id_generator (seq_name, next_val)
+SELECT 'club', COALESCE(MAX(id), 0) FROM club
+ON DUPLICATE KEY UPDATE next_val = GREATEST(COALESCE(next_val, 0), VALUES(next_val));
+
+INSERT INTO id_generator (seq_name, next_val)
+SELECT 'activity', COALESCE(MAX(id), 0) FROM activity
+ON DUPLICATE KEY UPDATE next_val = GREATEST(COALESCE(next_val, 0), VALUES(next_val));
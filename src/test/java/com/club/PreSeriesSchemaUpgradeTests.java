@@ -0,0 +1,87 @@
+package com.club;
+
+import com.club.dto.ClubDTO;
+import com.club.entity.Club;
+import com.club.repository.ClubRepository;
+import com.club.service.ClubService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 从引入 Flyway 之前的旧库（ddl-auto=update 建的表、已有数据）启动：
+ * 迁移要补齐 version 列和 id_generator，Hibernate 校验通过，新 ID 不与旧数据冲突。
+ * 需要 Docker（MySQL 8 容器），没有 Docker 时自动跳过
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class PreSeriesSchemaUpgradeTests {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("app.warmup.enabled", () -> "false");
+    }
+
+    // 容器启动之后、应用上下文（Flyway）之前执行
+    @BeforeAll
+    static void createPreSeriesSchema() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/pre-series-schema.sql"));
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private ClubService clubService;
+
+    @Test
+    void migratesLegacySchemaAndKeepsIdsUnique() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success = 1 ORDER BY installed_rank", String.class);
+        assertEquals("0", versions.get(0));
+        assertTrue(versions.contains("1") && versions.contains("9"), versions.toString());
+
+        Club legacy = clubRepository.findById(7L).orElseThrow();
+        assertEquals(0L, legacy.getVersion());
+        assertEquals(42L, jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generator WHERE seq_name = 'club'", Long.class));
+        assertEquals(15L, jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generator WHERE seq_name = 'activity'", Long.class));
+
+        ClubDTO dto = new ClubDTO();
+        dto.setName("新社团");
+        dto.setCategory("academic");
+        dto.setPresident("张三");
+        Club created = clubService.createClub(dto);
+        assertTrue(created.getId() > 42L, "新 ID 与旧数据冲突: " + created.getId());
+    }
+}
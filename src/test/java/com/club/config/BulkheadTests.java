@@ -0,0 +1,51 @@
+package com.club.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTests {
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("bulk", 1, 0, 1000, 30);
+
+        assertEquals(Bulkhead.Result.ADMITTED, bulkhead.tryEnter());
+        assertEquals(Bulkhead.Result.QUEUE_FULL, bulkhead.tryEnter());
+        assertEquals(1, bulkhead.getActive());
+
+        bulkhead.exit();
+        assertEquals(Bulkhead.Result.ADMITTED, bulkhead.tryEnter());
+    }
+
+    @Test
+    void timesOutWhenPermitIsNotReleased() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("write", 1, 5, 20, 2);
+
+        assertEquals(Bulkhead.Result.ADMITTED, bulkhead.tryEnter());
+        assertEquals(Bulkhead.Result.TIMEOUT, bulkhead.tryEnter());
+        assertEquals(0, bulkhead.getWaiting());
+    }
+
+    @Test
+    void configuredPermitsFitTheConnectionPool() throws IOException {
+        MockEnvironment environment = new MockEnvironment();
+        PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"))
+                .forEach((key, value) -> environment.setProperty((String) key, (String) value));
+        BulkheadRegistry registry = new BulkheadRegistry(environment, new SimpleMeterRegistry());
+
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class);
+        int reserved = environment.getProperty("app.admission.reserved-connections", Integer.class);
+        assertTrue(registry.totalPermits() + reserved <= poolSize,
+                registry.totalPermits() + " + " + reserved + " > " + poolSize);
+        // 未配置时的默认值同样放得进默认连接池
+        assertTrue(new BulkheadRegistry(new MockEnvironment(), new SimpleMeterRegistry()).totalPermits() + 2 <= 10);
+    }
+}
@@ -0,0 +1,128 @@
+package com.club.config;
+
+import com.club.dto.ClubChangeEvent;
+import com.club.service.ClubNearCache;
+import com.club.service.ClubQueryCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ReadWriteRoutingDataSourceTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource write = embedded("rw_primary");
+        DataSource read = embedded("rw_replica");
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.WRITE, write,
+                ReadWriteRoutingDataSource.READ, read));
+        routing.setDefaultTargetDataSource(write);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataSourceRouteHolder.clear();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertEquals("rw_replica", whichDatabase(true));
+    }
+
+    @Test
+    void writeTransactionGoesToPrimary() {
+        assertEquals("rw_primary", whichDatabase(false));
+    }
+
+    @Test
+    void stickyRequestReadsFromPrimary() {
+        DataSourceRouteHolder.forcePrimary();
+        assertEquals("rw_primary", whichDatabase(true));
+    }
+
+    @Test
+    void stickyListReadSkipsPageCachedFromReplica() {
+        ClubQueryCache cache = new ClubQueryCache(transactionManager);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        String key = "clubs?page=0";
+
+        // 写入提交后缓存失效，其他会话随即从延迟的从库加载并缓存了旧结果
+        cache.onClubChange(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(1L), Map.of()));
+        assertEquals("rw_replica", cache.get(key, this::marker));
+
+        // 写入者的会话带着粘滞标记读列表，必须读到主库
+        DataSourceRouteHolder.forcePrimary();
+        assertEquals("rw_primary", cache.get(key, this::marker));
+        DataSourceRouteHolder.clear();
+
+        // 也不把主库结果写回缓存
+        assertEquals("rw_replica", cache.get(key, this::marker));
+    }
+
+    @Test
+    void nearCacheLoadsMissesFromReplicaAndStickyReadsFromPrimary() {
+        ClubNearCache cache = new ClubNearCache(jdbcTemplate, mock(ApplicationEventPublisher.class), transactionManager);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        ReflectionTestUtils.setField(cache, "replicaLagMs", 60_000L);
+
+        assertEquals("rw_replica", cache.get(ClubNearCache.CLUB, 1L, this::marker));
+
+        // 写入后淘汰：延迟窗口内从库读到的结果不回填，写入者的粘滞请求直接读主库
+        cache.evict(List.of(1L));
+        assertEquals("rw_replica", cache.get(ClubNearCache.CLUB, 1L, this::marker));
+        DataSourceRouteHolder.forcePrimary();
+        assertEquals("rw_primary", cache.get(ClubNearCache.CLUB, 1L, this::marker));
+        DataSourceRouteHolder.clear();
+
+        // 主库读到的结果已回填，其他请求命中缓存
+        assertEquals("rw_primary", cache.get(ClubNearCache.CLUB, 1L, this::marker));
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private String whichDatabase(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private static DataSource embedded(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(32))");
+        jdbc.update("DELETE FROM marker");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,109 @@
+package com.club.config;
+
+import com.club.common.ApiResponse;
+import com.club.entity.Club;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 各响应编码的体积与编码耗时对比（500 条社团的分页列表）
+ * mvn test -Dtest=ResponseEncodingBenchmarkTests -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ResponseEncodingBenchmarkTests {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+
+    @Test
+    void binaryEncodingsAreSmallerThanJson() throws Exception {
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", mapper(null));
+        mappers.put("smile", mapper(new SmileFactory()));
+        mappers.put("cbor", mapper(new CBORFactory()));
+
+        Object payload = ApiResponse.success(new PageImpl<>(clubs(500), PageRequest.of(0, 500), 5000));
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            for (boolean gzip : new boolean[]{false, true}) {
+                // 预热
+                for (int i = 0; i < ITERATIONS; i++) {
+                    encode(entry.getValue(), payload, gzip);
+                }
+                long start = System.nanoTime();
+                int size = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    size = encode(entry.getValue(), payload, gzip);
+                }
+                long micros = (System.nanoTime() - start) / ITERATIONS / 1000;
+                String name = entry.getKey() + (gzip ? "+gzip" : "");
+                sizes.put(name, size);
+                System.out.printf("%-10s %8d bytes %6d us%n", name, size, micros);
+            }
+        }
+
+        assertTrue(sizes.get("smile") < sizes.get("json"));
+        assertTrue(sizes.get("cbor") < sizes.get("json"));
+        assertTrue(sizes.get("json+gzip") < sizes.get("json"));
+    }
+
+    private static ObjectMapper mapper(com.fasterxml.jackson.core.JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .postConfigurer(objectMapper -> EncodingConfig.usePooledBuffers(objectMapper, 100));
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+
+    private static int encode(ObjectMapper mapper, Object payload, boolean gzip) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                mapper.writeValue(gzipOut, payload);
+            }
+        } else {
+            mapper.writeValue(out, payload);
+        }
+        return out.size();
+    }
+
+    private static List<Club> clubs(int count) {
+        List<Club> clubs = new ArrayList<>(count);
+        String[] categories = {"academic", "art", "sports", "volunteer", "interest", "innovation"};
+        for (int i = 0; i < count; i++) {
+            Club club = new Club();
+            club.setId((long) i + 1);
+            club.setName("社团" + i);
+            club.setDescription("这是第 " + i + " 个社团的简介，定期组织活动与交流。");
+            club.setCategory(categories[i % categories.length]);
+            club.setEstablishedDate(LocalDate.of(2015 + i % 10, 9, 1));
+            club.setCurrentMembers(20 + i % 200);
+            club.setPresident("负责人" + i % 50);
+            club.setContact("club" + i + "@example.com");
+            club.setCampus(i % 2 == 0 ? "校本部" : "东校区");
+            club.setTags("标签" + i % 7 + ",标签" + i % 11);
+            club.setVersion(1L);
+            club.setCreatedAt(LocalDateTime.of(2024, 1, 1, 8, 0));
+            club.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 8, 0));
+            clubs.add(club);
+        }
+        return clubs;
+    }
+}
@@ -0,0 +1,102 @@
+package com.club.config;
+
+import com.club.dto.ClubQueryDTO;
+import com.club.repository.ClubRepository;
+import com.club.service.ClubService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 预热在 ApplicationReadyEvent 中同步执行：执行期间就绪状态为 REFUSING_TRAFFIC，单项失败不影响最终就绪
+ */
+class StartupWarmUpTests {
+
+    private static final ClubService CLUB_SERVICE = mock(ClubService.class);
+    private static final ClubRepository CLUB_REPOSITORY = mock(ClubRepository.class);
+    private static final ApplicationAvailabilityBean AVAILABILITY = new ApplicationAvailabilityBean();
+
+    private ConfigurableApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void readinessWaitsForWarmUpAndSurvivesFailingSteps() {
+        List<ReadinessState> statesDuringWarmUp = new CopyOnWriteArrayList<>();
+        when(CLUB_REPOSITORY.findTopIdsByMembers(any())).thenThrow(new RuntimeException("数据库不可用"));
+        when(CLUB_SERVICE.getCampuses()).thenAnswer(invocation -> {
+            statesDuringWarmUp.add(AVAILABILITY.getReadinessState());
+            return List.of();
+        });
+        when(CLUB_SERVICE.quickSearch(any())).thenAnswer(invocation -> {
+            statesDuringWarmUp.add(AVAILABILITY.getReadinessState());
+            return List.of();
+        });
+
+        SpringApplication application = new SpringApplication(WarmUpConfig.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run("--app.warmup.iterations=4", "--app.warmup.max-seconds=10");
+
+        // 热门社团加载失败后，其余预热项仍然执行，且都发生在就绪之前
+        assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC), statesDuringWarmUp.stream().distinct().toList());
+        assertEquals(5, statesDuringWarmUp.size());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, AVAILABILITY.getReadinessState());
+
+        // 列表查询只使用可排序的实体属性
+        ArgumentCaptor<ClubQueryDTO> queries = ArgumentCaptor.forClass(ClubQueryDTO.class);
+        verify(CLUB_SERVICE, atLeastOnce()).getClubs(queries.capture());
+        queries.getAllValues().forEach(query ->
+                assertTrue(ClubQueryDTO.SORT_FIELDS.contains(query.getSortField()), query.getSortField()));
+    }
+
+    @Configuration
+    @Import(StartupWarmUp.class)
+    static class WarmUpConfig {
+
+        @Bean
+        ClubService clubService() {
+            return CLUB_SERVICE;
+        }
+
+        @Bean
+        ClubRepository clubRepository() {
+            return CLUB_REPOSITORY;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ApplicationAvailabilityBean applicationAvailability() {
+            return AVAILABILITY;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.club.repository;
+
+import com.club.config.IdGeneratorInitializer;
+import com.club.entity.Club;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 取号在独立连接中进行，测试本身不能持有 id_generator 的行锁
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClubIdAllocationTests {
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allocatedIdsStartAfterExistingRows() {
+        // 模拟 IDENTITY 时代遗留的数据
+        jdbcTemplate.update("INSERT INTO club (id, name, current_members, max_members, status, activities_count) "
+                + "VALUES (120, 'legacy', 0, 100, 'active', 0)");
+        new IdGeneratorInitializer(jdbcTemplate).init();
+
+        List<Club> clubs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Club club = new Club();
+            club.setName("bulk-" + i);
+            clubs.add(club);
+        }
+        List<Club> saved = clubRepository.saveAllAndFlush(clubs);
+
+        assertEquals(121L, saved.get(0).getId());
+        for (int i = 1; i < saved.size(); i++) {
+            assertEquals(saved.get(i - 1).getId() + 1, saved.get(i).getId());
+        }
+        Long nextVal = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generator WHERE seq_name = 'club'", Long.class);
+        assertTrue(nextVal >= saved.get(saved.size() - 1).getId());
+    }
+}
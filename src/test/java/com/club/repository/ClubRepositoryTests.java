@@ -0,0 +1,133 @@
+package com.club.repository;
+
+import com.club.dto.ClubQueryDTO;
+import com.club.dto.QuickSearchDTO;
+import com.club.entity.Club;
+import com.club.service.ClubListQuery;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+class ClubRepositoryTests {
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void updateFieldsIfVersionOnlyMatchesExpectedVersion() {
+        Club club = new Club();
+        club.setName("摄影协会");
+        club.setPresident("张三");
+        club = clubRepository.saveAndFlush(club);
+        Long id = club.getId();
+        long version = club.getVersion();
+        entityManager.clear();
+
+        assertEquals(1, clubRepository.updateFieldsIfVersion(id, version, Map.of("president", "李四")));
+        assertEquals(0, clubRepository.updateFieldsIfVersion(id, version, Map.of("president", "王五")));
+        entityManager.clear();
+
+        Club reloaded = clubRepository.findById(id).orElseThrow();
+        assertEquals("李四", reloaded.getPresident());
+        assertEquals("摄影协会", reloaded.getName());
+        assertEquals(version + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void campusScopedQueriesOnlySeeLiveClubsOfThatCampus() {
+        Club chess = saveClub("象棋社", "东校区", "active", 40);
+        saveClub("围棋社", "东校区", "inactive", 120);
+        saveClub("篮球社", "西校区", "active", 300);
+        clubRepository.markDeleted(List.of(chess.getId()), LocalDateTime.now());
+        saveClub("桥牌社", "东校区", "active", 60);
+        entityManager.clear();
+
+        Object[] summary = clubRepository.summarizeCampus("东校区").get(0);
+        assertEquals(2L, ((Number) summary[0]).longValue());
+        assertEquals(1L, ((Number) summary[1]).longValue());
+        assertEquals(180L, ((Number) summary[2]).longValue());
+        assertEquals(0L, ((Number) summary[3]).longValue());
+        assertEquals(1L, ((Number) summary[4]).longValue());
+        assertEquals(1L, ((Number) summary[5]).longValue());
+        assertEquals(2, clubRepository.findIdsByCampus("东校区").size());
+        assertEquals(List.of("东校区", "西校区"), clubRepository.findDistinctCampuses().stream().sorted().toList());
+    }
+
+    @Test
+    void renderedListQueriesRunWithBoundParameters() {
+        saveClub("象棋社", "东校区", "active", 40).setPresident("张三");
+        saveClub("围棋社", "东校区", "inactive", 120);
+        saveClub("桥牌社", "西校区", "active", 10).setPresident("Li_Ming");
+        saveClub("篮球社", "西校区", "active", 300);
+        entityManager.flush();
+        entityManager.clear();
+
+        ClubQueryDTO queryDTO = new ClubQueryDTO();
+        queryDTO.setCampus("东校区");
+        queryDTO.setKeyword("社");
+        queryDTO.setMaxMembers(100);
+        queryDTO.setOnlyActive(true);
+        queryDTO.setSortField("currentMembers");
+        queryDTO.setSortOrder("desc");
+        ClubListQuery listQuery = ClubListQuery.list(queryDTO);
+        Page<Club> page = clubRepository.findPage(listQuery.getJpql(), listQuery.getCountJpql(),
+                listQuery.getParameters(), PageRequest.of(0, 10));
+        assertEquals(List.of("象棋社"), page.getContent().stream().map(Club::getName).toList());
+        assertEquals(1, page.getTotalElements());
+
+        // 负责人包含匹配、不区分大小写；未指定负责人时负责人为空的社团不被排除
+        ClubQueryDTO byPresident = new ClubQueryDTO();
+        byPresident.setPresident("张");
+        assertEquals(List.of("象棋社"), names(ClubListQuery.list(byPresident)));
+        byPresident.setPresident("三");
+        assertEquals(List.of("象棋社"), names(ClubListQuery.list(byPresident)));
+        byPresident.setPresident("li_m");
+        assertEquals(List.of("桥牌社"), names(ClubListQuery.list(byPresident)));
+        // 用户输入的 % 和 _ 不是通配符
+        byPresident.setPresident("_");
+        assertEquals(List.of("桥牌社"), names(ClubListQuery.list(byPresident)));
+        byPresident.setPresident("%");
+        assertEquals(List.of(), names(ClubListQuery.list(byPresident)));
+        ClubQueryDTO byKeyword = new ClubQueryDTO();
+        byKeyword.setKeyword("围棋");
+        assertEquals(List.of("围棋社"), names(ClubListQuery.list(byKeyword)));
+
+        QuickSearchDTO searchDTO = new QuickSearchDTO();
+        searchDTO.setKeyword("社");
+        searchDTO.setSort("members");
+        ClubListQuery searchQuery = ClubListQuery.quickSearch(searchDTO);
+        assertEquals(List.of("篮球社", "围棋社"), clubRepository.findList(searchQuery.getJpql(),
+                searchQuery.getParameters(), 2).stream().map(Club::getName).toList());
+    }
+
+    private List<String> names(ClubListQuery query) {
+        return clubRepository.findPage(query.getJpql(), query.getCountJpql(), query.getParameters(), PageRequest.of(0, 10))
+                .getContent().stream().map(Club::getName).toList();
+    }
+
+    private Club saveClub(String name, String campus, String status, int members) {
+        Club club = new Club();
+        club.setName(name);
+        club.setCampus(campus);
+        club.setStatus(status);
+        club.setCurrentMembers(members);
+        return clubRepository.saveAndFlush(club);
+    }
+}
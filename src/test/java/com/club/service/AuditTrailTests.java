@@ -0,0 +1,92 @@
+package com.club.service;
+
+import com.club.dto.AuditLogDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditTrailTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private AuditTrail auditTrail;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:audit;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS club_audit_log");
+        jdbcTemplate.execute("CREATE TABLE club_audit_log (id BIGINT AUTO_INCREMENT PRIMARY KEY, club_id BIGINT NOT NULL, "
+                + "action VARCHAR(16) NOT NULL, operator VARCHAR(64) NOT NULL, changes TEXT NOT NULL, created_at TIMESTAMP(3) NOT NULL)");
+
+        auditTrail = new AuditTrail(jdbcTemplate, new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(auditTrail, "durability", AuditTrail.Durability.ASYNC);
+        ReflectionTestUtils.setField(auditTrail, "capacity", 4);
+        ReflectionTestUtils.setField(auditTrail, "batchSize", 2);
+        ReflectionTestUtils.setField(auditTrail, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(auditTrail, "offerTimeoutMs", 10L);
+        auditTrail.start();
+    }
+
+    @Test
+    void diffKeepsOnlyChangedFields() {
+        Map<String, Map<String, Object>> changes = AuditTrail.diff(
+                Map.of("name", "篮球社", "status", "active"), Map.of("name", "篮球协会", "status", "active"));
+        assertEquals(Map.of("name", Map.of("old", "篮球社", "new", "篮球协会")), changes);
+    }
+
+    @Test
+    void flushesQueuedRecordsInBatchesAndPagesByKeyset() throws Exception {
+        for (long clubId = 1; clubId <= 10; clubId++) {
+            auditTrail.record(AuditTrail.UPDATE, clubId % 2, Map.of("status", "active"), Map.of("status", "inactive"));
+        }
+        auditTrail.record(AuditTrail.UPDATE, 1L, Map.of("status", "active"), Map.of("status", "active"));
+        auditTrail.stop();
+
+        // 无变化的记录不写入；队列容量小于记录数时由调用方直接写入，不丢记录
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM club_audit_log", Integer.class));
+
+        List<AuditLogDTO> firstPage = auditTrail.query(1L, null, 3);
+        assertEquals(3, firstPage.size());
+        assertTrue(firstPage.get(0).getId() > firstPage.get(2).getId());
+        assertEquals("system", firstPage.get(0).getOperator());
+        assertEquals(Map.of("old", "active", "new", "inactive"), firstPage.get(0).getChanges().get("status"));
+
+        List<AuditLogDTO> secondPage = auditTrail.query(1L, firstPage.get(2).getId(), 3);
+        assertEquals(2, secondPage.size());
+        assertTrue(secondPage.stream().allMatch(log -> log.getClubId() == 1L));
+    }
+
+    @Test
+    void shutdownWritesFailedBatchOneByOneAndSpillsTheRest(@TempDir Path dir) throws Exception {
+        Path spill = dir.resolve("audit-spill.ndjson");
+        ReflectionTestUtils.setField(auditTrail, "spillFile", spill.toString());
+        ReflectionTestUtils.setField(auditTrail, "capacity", 100);
+        ReflectionTestUtils.setField(auditTrail, "batchSize", 100);
+        ReflectionTestUtils.setField(auditTrail, "flushIntervalMs", 60_000L);
+        Thread.sleep(50);
+
+        // 动作名超出列宽的记录让整批失败，其余记录逐条写入后不受影响
+        auditTrail.record(AuditTrail.UPDATE, 1L, Map.of("status", "active"), Map.of("status", "inactive"));
+        auditTrail.record("action-name-too-long", 2L, Map.of("status", "active"), Map.of("status", "inactive"));
+        auditTrail.record(AuditTrail.UPDATE, 3L, Map.of("status", "active"), Map.of("status", "inactive"));
+        auditTrail.stop();
+
+        assertEquals(List.of(1L, 3L), jdbcTemplate.queryForList("SELECT club_id FROM club_audit_log ORDER BY club_id", Long.class));
+        List<String> spilled = Files.readAllLines(spill);
+        assertEquals(1, spilled.size());
+        assertTrue(spilled.get(0).contains("\"clubId\":2"), spilled.get(0));
+    }
+}
@@ -0,0 +1,145 @@
+package com.club.service;
+
+import com.club.dto.ClubChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 通过 MockMvc 建立真实的异步 SSE 响应，检查扇出、慢消费者断开与心跳
+ */
+class ClubChangeFeedTests {
+
+    private ClubChangeFeed feed;
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void fansOutEachEventToEverySubscriber() throws Exception {
+        start(64, 60);
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(subscribe());
+        }
+        assertEquals(3, feed.getSubscriberCount());
+
+        feed.onClubChange(ClubChangeEvent.of(ClubChangeEvent.CREATED, List.of(7L), Map.of("totalClubs", 1L)));
+        feed.onClubChange(ClubChangeEvent.of(ClubChangeEvent.DELETED, List.of(8L), Map.of("totalClubs", -1L)));
+
+        for (MockHttpServletResponse response : responses) {
+            await(() -> content(response).contains("event:deleted"));
+            String body = content(response);
+            // 同一订阅者内保持发布顺序
+            assertTrue(body.indexOf("event:created") < body.indexOf("event:deleted"), body);
+            assertTrue(body.contains("\"clubIds\":[7]"), body);
+        }
+    }
+
+    @Test
+    void disconnectsSubscriberWhoseBufferFills() throws Exception {
+        start(2, 60);
+        MockHttpServletResponse slow = subscribe();
+
+        // 占住唯一的分发线程，模拟客户端写不动时事件在缓冲队列里堆积
+        CountDownLatch release = new CountDownLatch(1);
+        ScheduledExecutorService dispatcher = (ScheduledExecutorService) ReflectionTestUtils.getField(feed, "dispatcher");
+        dispatcher.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (long id = 1; id <= 3; id++) {
+            feed.onClubChange(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(id), Map.of()));
+        }
+        release.countDown();
+
+        assertEquals(0, feed.getSubscriberCount());
+        // 断开时丢弃未发送的事件，客户端重连后重新拉取
+        Thread.sleep(200);
+        assertFalse(content(slow).contains("event:updated"), content(slow));
+
+        // 新的订阅者不受影响
+        MockHttpServletResponse fresh = subscribe();
+        feed.onClubChange(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(4L), Map.of()));
+        await(() -> content(fresh).contains("\"clubIds\":[4]"));
+    }
+
+    @Test
+    void sendsHeartbeatsWhileIdle() throws Exception {
+        start(64, 1);
+        MockHttpServletResponse response = subscribe();
+
+        await(() -> content(response).contains(":ping"));
+        assertEquals(1, feed.getSubscriberCount());
+    }
+
+    private void start(int bufferSize, long heartbeatSeconds) {
+        feed = new ClubChangeFeed(1, heartbeatSeconds);
+        ReflectionTestUtils.setField(feed, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(feed, "timeoutMs", 60_000L);
+        mockMvc = MockMvcBuilders.standaloneSetup(new FeedController(feed)).build();
+    }
+
+    private MockHttpServletResponse subscribe() throws Exception {
+        return mockMvc.perform(get("/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static String content(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+
+    @RestController
+    static class FeedController {
+        private final ClubChangeFeed feed;
+
+        FeedController(ClubChangeFeed feed) {
+            this.feed = feed;
+        }
+
+        @GetMapping("/changes")
+        SseEmitter changes() {
+            return feed.subscribe();
+        }
+    }
+}
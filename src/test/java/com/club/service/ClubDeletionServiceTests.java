@@ -0,0 +1,83 @@
+package com.club.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClubDeletionServiceTests {
+
+    @TempDir
+    Path uploadDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private ClubDeletionService deletionService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:deletion;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS club");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS activity");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS club_member");
+        jdbcTemplate.execute("CREATE TABLE club (id BIGINT PRIMARY KEY, logo_url VARCHAR(255), deleted_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE activity (id BIGINT PRIMARY KEY, club_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE club_member (id BIGINT PRIMARY KEY, club_id BIGINT, student_id BIGINT)");
+
+        Files.createDirectories(uploadDir.resolve("club_logos"));
+        Files.writeString(uploadDir.resolve("club_logos/a.png"), "a");
+        Files.writeString(uploadDir.resolve("club_logos/shared.png"), "s");
+
+        jdbcTemplate.update("INSERT INTO club VALUES (1, '/uploads/club_logos/a.png', CURRENT_TIMESTAMP), "
+                + "(2, '/uploads/club_logos/shared.png', CURRENT_TIMESTAMP), (3, '/uploads/club_logos/shared.png', NULL)");
+        jdbcTemplate.update("INSERT INTO activity VALUES (1, 1), (2, 1), (3, 1), (4, 1), (5, 1), (6, 3)");
+        jdbcTemplate.update("INSERT INTO club_member VALUES (1, 1, 1001), (2, 2, 1001), (3, 3, 1002)");
+
+        FileService fileService = new FileService();
+        ReflectionTestUtils.setField(fileService, "uploadDir", uploadDir.toString());
+
+        meterRegistry = new SimpleMeterRegistry();
+        deletionService = new ClubDeletionService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                fileService, meterRegistry);
+        ReflectionTestUtils.setField(deletionService, "enabled", true);
+        ReflectionTestUtils.setField(deletionService, "clubsPerRun", 10);
+        ReflectionTestUtils.setField(deletionService, "chunkSize", 2);
+        ReflectionTestUtils.setField(deletionService, "chunkPauseMs", 0L);
+    }
+
+    @Test
+    void purgesActivitiesLogoAndRowInChunks() {
+        deletionService.purgePending();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM club", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM activity", Integer.class));
+        assertFalse(Files.exists(uploadDir.resolve("club_logos/a.png")));
+        // 仍被未删除社团引用的 Logo 保留
+        assertTrue(Files.exists(uploadDir.resolve("club_logos/shared.png")));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM club_member", Integer.class));
+        assertEquals(5.0, meterRegistry.get("club.deletion.purged").tag("type", "activity").counter().count());
+        assertEquals(2.0, meterRegistry.get("club.deletion.purged").tag("type", "member").counter().count());
+        assertEquals(2.0, meterRegistry.get("club.deletion.purged").tag("type", "club").counter().count());
+    }
+
+    @Test
+    void liveClubsAreNotTouched() {
+        deletionService.purgePending();
+        deletionService.purgePending();
+
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT id FROM club", Long.class));
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT club_id FROM activity", Long.class));
+    }
+}
@@ -0,0 +1,65 @@
+package com.club.service;
+
+import com.club.entity.Club;
+import com.club.repository.ClubRepository;
+import com.club.service.impl.ClubServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 社团详情走近端缓存：缓存里是脱离持久化上下文的副本，每个调用方拿到自己的一份
+ */
+@ExtendWith(MockitoExtension.class)
+class ClubDetailCacheTests {
+
+    @Mock
+    private ClubRepository clubRepository;
+    @InjectMocks
+    private ClubServiceImpl clubService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:club_detail;DB_CLOSE_DELAY=-1", "sa", "");
+        ClubNearCache nearCache = new ClubNearCache(new JdbcTemplate(dataSource), mock(ApplicationEventPublisher.class),
+                new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(nearCache, "enabled", true);
+        ReflectionTestUtils.setField(nearCache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(nearCache, "maxEntries", 10);
+        ReflectionTestUtils.setField(clubService, "nearCache", nearCache);
+    }
+
+    @Test
+    void callersCannotChangeTheCachedClub() {
+        Club managed = new Club();
+        managed.setId(1L);
+        managed.setName("象棋社");
+        when(clubRepository.findById(1L)).thenReturn(Optional.of(managed));
+
+        Club first = clubService.getClubById(1L);
+        first.setName("被调用方改掉的名称");
+        Club second = clubService.getClubById(1L);
+
+        assertNotSame(managed, first);
+        assertNotSame(first, second);
+        assertEquals("象棋社", second.getName());
+        verify(clubRepository, times(1)).findById(1L);
+    }
+}
@@ -0,0 +1,85 @@
+package com.club.service;
+
+import com.club.dto.ClubExportDTO;
+import com.club.entity.Activity;
+import com.club.entity.Club;
+import com.club.repository.ActivityRepository;
+import com.club.repository.ClubRepository;
+import com.club.service.export.ExportFormat;
+import com.club.service.impl.ClubServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 流式导出：逐行写出后立即把实体移出持久化上下文，并按是否指定社团选择查询
+ */
+@ExtendWith(MockitoExtension.class)
+class ClubExportTests {
+
+    @Mock
+    private ClubRepository clubRepository;
+    @Mock
+    private ActivityRepository activityRepository;
+    @Mock
+    private EntityManager entityManager;
+    @InjectMocks
+    private ClubServiceImpl clubService;
+
+    @Test
+    void detachesEachClubAfterWritingIt() {
+        Club chess = club(1L, "象棋社");
+        Club go = club(2L, "围棋社");
+        when(clubRepository.streamAll(any())).thenReturn(Stream.of(chess, go));
+
+        ClubExportDTO exportDTO = new ClubExportDTO();
+        exportDTO.setColumns(List.of("id", "name"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        clubService.exportClubs(exportDTO, ExportFormat.NDJSON, out);
+
+        assertEquals("{\"id\":1,\"name\":\"象棋社\"}\n{\"id\":2,\"name\":\"围棋社\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+        var order = inOrder(entityManager);
+        order.verify(entityManager).detach(chess);
+        order.verify(entityManager).detach(go);
+    }
+
+    @Test
+    void activityExportPicksQueryByClubFilter() {
+        Activity activity = new Activity();
+        activity.setId(5L);
+        when(activityRepository.streamByClubId(3L)).thenReturn(Stream.of(activity));
+        clubService.exportActivities(3L, ExportFormat.CSV, new ByteArrayOutputStream());
+        verify(activityRepository, never()).streamAll();
+        verify(entityManager).detach(activity);
+
+        when(activityRepository.streamAll()).thenReturn(Stream.empty());
+        clubService.exportActivities(null, ExportFormat.CSV, new ByteArrayOutputStream());
+        verify(activityRepository).streamAll();
+        verify(activityRepository).streamByClubId(3L);
+        verifyNoMoreInteractions(activityRepository);
+    }
+
+    private static Club club(Long id, String name) {
+        Club club = new Club();
+        club.setId(id);
+        club.setName(name);
+        return club;
+    }
+}
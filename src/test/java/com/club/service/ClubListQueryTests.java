@@ -0,0 +1,109 @@
+package com.club.service;
+
+import com.club.dto.ClubQueryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClubListQueryTests {
+
+    @Test
+    void everyFilterCombinationRendersAtMost64Statements() {
+        Set<String> statements = new HashSet<>();
+        Set<String> countStatements = new HashSet<>();
+        Set<String> shapes = new HashSet<>();
+        // 七个可选条件的全部组合，每个条件再分别给一端 / 两端取值
+        for (int mask = 0; mask < 1 << 7; mask++) {
+            for (boolean bothEnds : new boolean[]{false, true}) {
+                ClubListQuery query = ClubListQuery.list(filters(mask, bothEnds));
+                statements.add(query.getJpql());
+                countStatements.add(query.getCountJpql());
+                shapes.add(query.getShape());
+            }
+        }
+        assertEquals(64, shapes.size());
+        assertTrue(statements.size() <= 64, "列表语句数: " + statements.size());
+        assertTrue(countStatements.size() <= 64, "计数语句数: " + countStatements.size());
+    }
+
+    @Test
+    void equivalentFiltersShareStatementAndShape() {
+        ClubQueryDTO onlyActive = new ClubQueryDTO();
+        onlyActive.setOnlyActive(true);
+        ClubQueryDTO active = new ClubQueryDTO();
+        active.setStatus("active");
+        ClubQueryDTO keyword = new ClubQueryDTO();
+        keyword.setKeyword("Chess");
+        ClubQueryDTO president = new ClubQueryDTO();
+        president.setPresident("Zhang");
+
+        assertEquals(ClubListQuery.list(onlyActive).getJpql(), ClubListQuery.list(active).getJpql());
+        assertEquals(ClubListQuery.list(onlyActive).getShape(), ClubListQuery.list(active).getShape());
+        assertEquals(ClubListQuery.list(keyword).getJpql(), ClubListQuery.list(president).getJpql());
+        assertEquals("%chess%", ClubListQuery.list(keyword).getParameters().get("keyword"));
+        assertEquals("%", ClubListQuery.list(keyword).getParameters().get("president"));
+        // 负责人不区分大小写的包含匹配
+        assertEquals("%zhang%", ClubListQuery.list(president).getParameters().get("president"));
+    }
+
+    @Test
+    void escapesLikeMetacharactersInUserInput() {
+        ClubQueryDTO dto = new ClubQueryDTO();
+        dto.setKeyword("100%_!");
+        dto.setPresident("_");
+        assertEquals("%100!%!_!!%", ClubListQuery.list(dto).getParameters().get("keyword"));
+        assertEquals("%!_%", ClubListQuery.list(dto).getParameters().get("president"));
+    }
+
+    @Test
+    void conflictingStatusNeverQueries() {
+        ClubQueryDTO dto = new ClubQueryDTO();
+        dto.setOnlyActive(true);
+        dto.setStatus("inactive");
+        assertTrue(ClubListQuery.list(dto).isAlwaysEmpty());
+    }
+
+    @Test
+    void rejectsUnknownSortFieldAndDirection() {
+        for (String field : new String[]{"category", "status", "campus", "name; DROP TABLE club"}) {
+            ClubQueryDTO dto = new ClubQueryDTO();
+            dto.setSortField(field);
+            RuntimeException e = assertThrows(RuntimeException.class, () -> ClubListQuery.list(dto));
+            assertEquals("不支持的排序字段: " + field, e.getMessage());
+        }
+        ClubQueryDTO dto = new ClubQueryDTO();
+        dto.setSortOrder("sideways");
+        assertThrows(RuntimeException.class, () -> ClubListQuery.list(dto));
+
+        for (String field : ClubQueryDTO.SORT_FIELDS) {
+            ClubQueryDTO sorted = new ClubQueryDTO();
+            sorted.setSortField(field);
+            sorted.setSortOrder("desc");
+            assertTrue(ClubListQuery.list(sorted).getJpql().endsWith("ORDER BY c." + field + " DESC"));
+        }
+    }
+
+    private static ClubQueryDTO filters(int mask, boolean bothEnds) {
+        ClubQueryDTO dto = new ClubQueryDTO();
+        if ((mask & 1) != 0) dto.setCampus("东校区");
+        if ((mask & 2) != 0) dto.setKeyword("chess");
+        if ((mask & 4) != 0) dto.setCategory("sports");
+        if ((mask & 8) != 0) dto.setStatus("active");
+        if ((mask & 16) != 0) {
+            dto.setStartDate(LocalDate.of(2020, 1, 1));
+            if (bothEnds) dto.setEndDate(LocalDate.of(2024, 1, 1));
+        }
+        if ((mask & 32) != 0) {
+            dto.setMaxMembers(50);
+            if (bothEnds) dto.setMinMembers(10);
+        }
+        if ((mask & 64) != 0) dto.setPresident("zhang");
+        return dto;
+    }
+}
@@ -0,0 +1,165 @@
+package com.club.service;
+
+import com.club.dto.ClubChangeEvent;
+import com.club.dto.MemberDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+class ClubMembershipServiceTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ClubMembershipService membershipService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:membership;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS club");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS club_member");
+        jdbcTemplate.execute("CREATE TABLE club (id BIGINT PRIMARY KEY, current_members INT, max_members INT, "
+                + "version BIGINT DEFAULT 0, updated_at TIMESTAMP, deleted_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE club_member (id BIGINT AUTO_INCREMENT PRIMARY KEY, club_id BIGINT NOT NULL, "
+                + "student_id BIGINT NOT NULL, role VARCHAR(16) NOT NULL, joined_at TIMESTAMP(3) NOT NULL, "
+                + "UNIQUE (club_id, student_id))");
+        jdbcTemplate.update("INSERT INTO club (id, current_members, max_members) VALUES (1, 0, 2), (2, 0, 100)");
+
+        membershipService = new ClubMembershipService(jdbcTemplate, mock(TrendRollupService.class),
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void enforcesMaxMembersAndRollsBackRejectedJoin() {
+        join(1L, 2021001L);
+        join(1L, 2021002L);
+
+        RuntimeException full = assertThrows(RuntimeException.class, () -> join(1L, 2021003L));
+        assertEquals("社团人数已满", full.getMessage());
+        RuntimeException duplicate = assertThrows(RuntimeException.class, () -> join(1L, 2021001L));
+        assertEquals("该学生已是社团成员", duplicate.getMessage());
+
+        assertEquals(2, currentMembers(1L));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM club_member WHERE club_id = 1", Integer.class));
+        assertFalse(membershipService.isMember(1L, 2021003L));
+
+        transactionTemplate.executeWithoutResult(status -> membershipService.leave(1L, 2021001L));
+        join(1L, 2021003L);
+        assertEquals(2, currentMembers(1L));
+    }
+
+    @Test
+    void bitmapFollowsLocalAndRemoteChanges() {
+        join(2L, 2021001L);
+        assertTrue(membershipService.isMember(2L, 2021001L));
+
+        // 位图已加载，之后的加入/退出在提交后直接改位图
+        join(2L, 2024999L);
+        assertTrue(membershipService.isMember(2L, 2024999L));
+        transactionTemplate.executeWithoutResult(status -> membershipService.leave(2L, 2021001L));
+        assertFalse(membershipService.isMember(2L, 2021001L));
+
+        // 其他节点写入的成员在收到远程变更事件后可见
+        jdbcTemplate.update("INSERT INTO club_member (club_id, student_id, role, joined_at) "
+                + "VALUES (2, 2023123, 'member', CURRENT_TIMESTAMP)");
+        assertFalse(membershipService.isMember(2L, 2023123L));
+        membershipService.onClubChange(ClubChangeEvent.remote(ClubChangeEvent.UPDATED, List.of(2L)));
+        assertTrue(membershipService.isMember(2L, 2023123L));
+    }
+
+    @Test
+    void rejectsUnknownOrDeletedClubs() {
+        RuntimeException missing = assertThrows(RuntimeException.class, () -> membershipService.isMember(99L, 2021001L));
+        assertEquals("社团不存在", missing.getMessage());
+
+        jdbcTemplate.update("UPDATE club SET deleted_at = CURRENT_TIMESTAMP WHERE id = 1");
+        membershipService.onClubChange(ClubChangeEvent.of(ClubChangeEvent.DELETED, List.of(1L), null));
+        RuntimeException deleted = assertThrows(RuntimeException.class, () -> membershipService.isMember(1L, 2021001L));
+        assertEquals("社团不存在", deleted.getMessage());
+    }
+
+    @Test
+    void evictsLeastRecentlyQueriedBitmap() {
+        ReflectionTestUtils.setField(membershipService, "maxBitmaps", 1);
+        join(1L, 2021001L);
+        assertTrue(membershipService.isMember(1L, 2021001L));
+        assertFalse(membershipService.isMember(2L, 2021001L));
+
+        Map<?, ?> bitmaps = (Map<?, ?>) ReflectionTestUtils.getField(membershipService, "bitmaps");
+        assertEquals(Set.of(2L), bitmaps.keySet());
+        // 被淘汰的社团下次查询时重新加载
+        assertTrue(membershipService.isMember(1L, 2021001L));
+        assertEquals(Set.of(1L), bitmaps.keySet());
+    }
+
+    @Test
+    void joinCommittedWhileLoadingIsNotLost() {
+        JdbcTemplate spy = spy(jdbcTemplate);
+        membershipService = new ClubMembershipService(spy, mock(TrendRollupService.class),
+                mock(ApplicationEventPublisher.class));
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            Object result = invocation.callRealMethod();
+            if (first.getAndSet(false)) {
+                // 名册已读完、位图尚未发布时，另一个请求的加入提交
+                CompletableFuture.runAsync(() -> join(2L, 2024001L)).get(5, TimeUnit.SECONDS);
+            }
+            return result;
+        }).when(spy).query(eq("SELECT student_id FROM club_member WHERE club_id = ?"),
+                any(RowCallbackHandler.class), ArgumentMatchers.<Object>any());
+
+        assertFalse(membershipService.isMember(2L, 2021001L));
+        assertTrue(membershipService.isMember(2L, 2024001L));
+    }
+
+    @Test
+    void pagesRosterByJoinTime() {
+        for (long student = 1; student <= 5; student++) {
+            join(2L, student);
+        }
+
+        List<MemberDTO> first = membershipService.listMembers(2L, null, null, 2);
+        assertEquals(List.of(1L, 2L), studentIds(first));
+        MemberDTO last = first.get(first.size() - 1);
+        List<MemberDTO> second = membershipService.listMembers(2L, last.getJoinedAt(), last.getId(), 10);
+        assertEquals(List.of(3L, 4L, 5L), studentIds(second));
+    }
+
+    private void join(Long clubId, Long studentId) {
+        transactionTemplate.executeWithoutResult(status -> membershipService.join(clubId, studentId, null));
+    }
+
+    private int currentMembers(Long clubId) {
+        return jdbcTemplate.queryForObject("SELECT current_members FROM club WHERE id = ?", Integer.class, clubId);
+    }
+
+    private List<Long> studentIds(List<MemberDTO> members) {
+        return members.stream().map(MemberDTO::getStudentId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,63 @@
+package com.club.service;
+
+import com.club.dto.ClubDTO;
+import com.club.repository.ClubRepository;
+import com.club.service.impl.ClubServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 名称校验与唯一键同一规则：不区分大小写，待删除的社团仍占用名称
+ */
+@ExtendWith(MockitoExtension.class)
+class ClubNameCheckTests {
+
+    @Mock
+    private ClubRepository clubRepository;
+    @InjectMocks
+    private ClubServiceImpl clubService;
+
+    @Test
+    void nameHeldByClubPendingDeletionIsReported() {
+        when(clubRepository.findNameOwners(List.of("chess club")))
+                .thenReturn(List.<Object[]>of(new Object[]{"Chess Club", new Timestamp(0)}));
+
+        ClubDTO clubDTO = new ClubDTO();
+        clubDTO.setName("CHESS club");
+        RuntimeException e = assertThrows(RuntimeException.class, () -> clubService.createClub(clubDTO));
+        assertEquals("名称被待删除社团占用，请等待删除完成后再使用: Chess Club", e.getMessage());
+        // 名称检查接口使用同一查询
+        assertFalse(clubService.checkClubName("Chess Club"));
+    }
+
+    @Test
+    void bulkCreateRejectsCaseInsensitiveDuplicates() {
+        ClubDTO first = new ClubDTO();
+        first.setName("Go");
+        ClubDTO second = new ClubDTO();
+        second.setName("GO");
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> clubService.bulkCreateClubs(List.of(first, second)));
+        assertEquals("社团名称重复: GO", e.getMessage());
+
+        ClubDTO taken = new ClubDTO();
+        taken.setName("Drama");
+        when(clubRepository.findNameOwners(List.of("drama")))
+                .thenReturn(List.<Object[]>of(new Object[]{"drama", null}));
+        e = assertThrows(RuntimeException.class, () -> clubService.bulkCreateClubs(List.of(taken)));
+        assertEquals("社团名称已存在: drama", e.getMessage());
+        verify(clubRepository).findNameOwners(List.of("drama"));
+    }
+}
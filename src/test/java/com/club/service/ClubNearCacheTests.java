@@ -0,0 +1,187 @@
+package com.club.service;
+
+import com.club.dto.ClubChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 两个应用上下文（模拟两个节点）共用一个内嵌数据库，验证失效日志的跨节点传播
+ */
+class ClubNearCacheTests {
+
+    private static final String URL = "jdbc:h2:mem:near_cache;DB_CLOSE_DELAY=-1";
+
+    private AnnotationConfigApplicationContext nodeA;
+    private AnnotationConfigApplicationContext nodeB;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS cache_invalidation_log");
+        jdbcTemplate.execute("CREATE TABLE cache_invalidation_log ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "origin VARCHAR(64) NOT NULL, event_type VARCHAR(16) NOT NULL, club_id BIGINT, club_ids VARCHAR(8000), "
+                + "created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3))");
+
+        nodeA = new AnnotationConfigApplicationContext(NodeConfig.class);
+        nodeB = new AnnotationConfigApplicationContext(NodeConfig.class);
+        // 第一次轮询只确定水位线
+        cache(nodeA).poll();
+        cache(nodeB).poll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void writeOnOneNodeEvictsOtherNodeAfterPoll() {
+        assertEquals("v1", cache(nodeB).get(ClubNearCache.CLUB, 1L, () -> "v1"));
+        assertEquals("v1", cache(nodeB).get(ClubNearCache.STATISTICS, "all", () -> "v1"));
+
+        // 节点 A 修改社团 1，失效记录随事务一起提交
+        new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+                nodeA.publishEvent(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(1L), Map.of())));
+
+        // 轮询之前 B 仍返回旧值（陈旧时间不超过一个轮询周期）
+        assertEquals("v1", cache(nodeB).get(ClubNearCache.CLUB, 1L, () -> "v2"));
+
+        cache(nodeB).poll();
+        assertEquals("v2", cache(nodeB).get(ClubNearCache.CLUB, 1L, () -> "v2"));
+        assertEquals("v2", cache(nodeB).get(ClubNearCache.STATISTICS, "all", () -> "v2"));
+
+        List<ClubChangeEvent> remoteOnB = nodeB.getBean(RemoteEvents.class).events;
+        assertEquals(1, remoteOnB.size());
+        assertEquals(List.of(1L), remoteOnB.get(0).getClubIds());
+
+        // 本节点写入的记录不会再作为远程事件处理
+        cache(nodeA).poll();
+        assertTrue(nodeA.getBean(RemoteEvents.class).events.isEmpty());
+    }
+
+    @Test
+    void rolledBackWriteLeavesNoInvalidation() {
+        assertEquals("v1", cache(nodeB).get(ClubNearCache.CLUB, 2L, () -> "v1"));
+
+        new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            nodeA.publishEvent(ClubChangeEvent.of(ClubChangeEvent.DELETED, List.of(2L), Map.of()));
+            status.setRollbackOnly();
+        });
+
+        cache(nodeB).poll();
+        assertEquals("v1", cache(nodeB).get(ClubNearCache.CLUB, 2L, () -> "v2"));
+    }
+
+    @Test
+    void bulkChangeWritesSingleLogRow() {
+        List<Long> ids = LongStream.rangeClosed(1, 300).boxed().collect(Collectors.toList());
+        new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+                nodeA.publishEvent(ClubChangeEvent.of(ClubChangeEvent.CREATED, ids, Map.of())));
+
+        JdbcTemplate jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidation_log", Integer.class));
+
+        cache(nodeB).poll();
+        List<ClubChangeEvent> remoteOnB = nodeB.getBean(RemoteEvents.class).events;
+        assertEquals(1, remoteOnB.size());
+        assertEquals(ids, remoteOnB.get(0).getClubIds());
+    }
+
+    @Test
+    void unsettledBacklogLargerThanBatchIsAppliedInOnePoll() {
+        // 1500 条都在 settle 窗口内：水位线不动，但一次轮询要读完并应用全部记录
+        JdbcTemplate jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+        List<Object[]> rows = LongStream.rangeClosed(1, 1500)
+                .mapToObj(id -> new Object[]{"other-node", ClubChangeEvent.UPDATED, String.valueOf(id)})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO cache_invalidation_log (origin, event_type, club_ids) VALUES (?, ?, ?)", rows);
+        assertEquals("v1", cache(nodeB).get(ClubNearCache.CLUB, 1500L, () -> "v1"));
+
+        cache(nodeB).poll();
+        assertEquals("v2", cache(nodeB).get(ClubNearCache.CLUB, 1500L, () -> "v2"));
+        List<ClubChangeEvent> remoteOnB = nodeB.getBean(RemoteEvents.class).events;
+        assertEquals(1, remoteOnB.size());
+        assertEquals(1500, remoteOnB.get(0).getClubIds().size());
+
+        // 未稳定的记录下次轮询还会重读，但不会重复应用
+        cache(nodeB).poll();
+        assertEquals(1, remoteOnB.size());
+    }
+
+    private static ClubNearCache cache(AnnotationConfigApplicationContext context) {
+        return context.getBean(ClubNearCache.class);
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class NodeConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource(URL, "sa", "");
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        ClubNearCache clubNearCache(JdbcTemplate jdbcTemplate, ApplicationEventPublisher publisher,
+                                    PlatformTransactionManager transactionManager) {
+            return new ClubNearCache(jdbcTemplate, publisher, transactionManager);
+        }
+
+        @Bean
+        RemoteEvents remoteEvents() {
+            return new RemoteEvents();
+        }
+
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+    }
+
+    static class RemoteEvents {
+        private final List<ClubChangeEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void onEvent(ClubChangeEvent event) {
+            if (event.isRemote()) {
+                events.add(event);
+            }
+        }
+    }
+}
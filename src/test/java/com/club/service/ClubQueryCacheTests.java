@@ -0,0 +1,137 @@
+package com.club.service;
+
+import com.club.dto.ClubChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClubQueryCacheTests {
+
+    private ClubQueryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:query_cache;DB_CLOSE_DELAY=-1", "sa", "");
+        cache = new ClubQueryCache(new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+    }
+
+    @Test
+    void concurrentIdenticalQueriesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get(List.of("quick", "篮球"), () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void clubChangeInvalidatesCachedResults() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("key", loads::incrementAndGet);
+        cache.get("key", loads::incrementAndGet);
+        assertEquals(1, loads.get());
+
+        cache.onClubChange(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(1L), Map.of()));
+        cache.get("key", loads::incrementAndGet);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadsInReadOnlyTransaction() {
+        // 只读事务由路由数据源分到从库
+        assertTrue(cache.get("key", TransactionSynchronizationManager::isCurrentTransactionReadOnly));
+    }
+
+    @Test
+    void waitersAreReleasedWhenLoaderFailsWithError() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> loader = pool.submit(() -> cache.get("key", () -> {
+                loading.countDown();
+                await(release);
+                throw new StackOverflowError();
+            }));
+            await(loading);
+            Future<String> waiter = pool.submit(() -> cache.get("key", () -> "unused"));
+            Thread.sleep(100);
+            release.countDown();
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, failure.getCause());
+            assertThrows(ExecutionException.class, () -> loader.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        // 失败的加载不留在缓存里
+        assertEquals("ok", cache.get("key", () -> "ok"));
+    }
+
+    @Test
+    void waitersGiveUpAfterTimeout() throws Exception {
+        ReflectionTestUtils.setField(cache, "waitTimeoutMs", 50L);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> cache.get("key", () -> {
+                loading.countDown();
+                await(release);
+                return "slow";
+            }));
+            await(loading);
+            RuntimeException timeout = assertThrows(RuntimeException.class, () -> cache.get("key", () -> "unused"));
+            assertEquals("查询繁忙，请稍后重试", timeout.getMessage());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
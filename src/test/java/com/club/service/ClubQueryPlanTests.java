@@ -0,0 +1,282 @@
+package com.club.service;
+
+import com.club.dto.ClubDTO;
+import com.club.dto.ClubQueryDTO;
+import com.club.dto.QuickSearchDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 对服务层发出的每一种查询形态执行 EXPLAIN，任何 type=ALL 的全表扫描都算失败，
+ * 只有 ACCEPTED_FULL_SCANS 里逐条列出（并写明原因）的查询例外
+ * 需要 Docker（MySQL 8 容器），没有 Docker 时自动跳过
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class ClubQueryPlanTests {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("app.query-cache.enabled", () -> "false");
+        registry.add("app.near-cache.enabled", () -> "false");
+    }
+
+    static final List<RecordedQuery> RECORDED = new CopyOnWriteArrayList<>();
+
+    // 允许全表扫描的查询：原因 -> 判定条件。新增例外必须写在这里
+    private static final Map<String, Predicate<RecordedQuery>> ACCEPTED_FULL_SCANS = Map.of(
+            "关键词包含匹配：'%关键词%' 前后模糊匹配无法使用 B-Tree 索引", RecordedQuery::isKeywordContainsSearch,
+            "负责人包含匹配：接口约定按姓名中任意片段、不区分大小写查找负责人，'%负责人%' 无法使用 B-Tree 索引",
+            RecordedQuery::isPresidentContainsSearch);
+
+    @Autowired
+    private ClubService clubService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void seed() {
+        if (clubService.getStatistics().get("totalClubs").equals(0L)) {
+            String[] categories = {"academic", "art", "sports", "volunteer", "interest", "innovation"};
+            String[] statuses = {"active", "inactive", "closed"};
+            List<ClubDTO> clubs = new ArrayList<>();
+            for (int i = 0; i < 600; i++) {
+                ClubDTO dto = new ClubDTO();
+                dto.setName("社团" + i);
+                dto.setCategory(categories[i % categories.length]);
+                dto.setStatus(statuses[i % statuses.length]);
+                dto.setPresident("负责人" + (i % 97));
+                dto.setCampus("校区" + (i % 4));
+                dto.setEstablishedDate(LocalDate.of(2000, 1, 1).plusDays(i * 11L));
+                clubs.add(dto);
+            }
+            clubService.bulkCreateClubs(clubs);
+            // 成员数、活动数分散开，范围条件和排序的选择性接近真实数据
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("UPDATE club SET current_members = id % 250, activities_count = id % 40");
+            jdbcTemplate.execute("ANALYZE TABLE club");
+        }
+        RECORDED.clear();
+    }
+
+    @Test
+    void everyQueryShapeUsesAnIndex() {
+        for (Consumer<ClubQueryDTO> shape : listShapes()) {
+            ClubQueryDTO queryDTO = new ClubQueryDTO();
+            shape.accept(queryDTO);
+            clubService.getClubs(queryDTO);
+        }
+        for (String sort : List.of("name", "members", "date", "activities")) {
+            QuickSearchDTO searchDTO = new QuickSearchDTO();
+            searchDTO.setSort(sort);
+            searchDTO.setCategory("art");
+            clubService.quickSearch(searchDTO);
+        }
+        clubService.getStatistics();
+        clubService.getStatistics("校区1");
+        clubService.getCampuses();
+        clubService.checkClubName("社团1");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<String> violations = new ArrayList<>();
+        for (RecordedQuery query : RECORDED) {
+            boolean accepted = ACCEPTED_FULL_SCANS.values().stream().anyMatch(rule -> rule.test(query));
+            for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + query.sql, query.params())) {
+                if ("ALL".equals(row.get("type")) ? !accepted : isUnindexedSort(query.sql, row)) {
+                    violations.add(query.sql + " " + query.params + " -> " + row);
+                }
+            }
+        }
+        assertTrue(!RECORDED.isEmpty(), "没有捕获到任何查询");
+        assertTrue(violations.isEmpty(), "以下查询没有可用索引:\n" + String.join("\n", violations));
+    }
+
+    // 无筛选条件的分页/排序查询：排序列必须有索引，不能落到 filesort
+    private static boolean isUnindexedSort(String sql, Map<String, Object> row) {
+        String lower = sql.toLowerCase();
+        return !lower.contains(" where ") && lower.contains(" order by ")
+                && String.valueOf(row.get("Extra")).contains("Using filesort") && row.get("key") == null;
+    }
+
+    private static List<Consumer<ClubQueryDTO>> listShapes() {
+        List<Consumer<ClubQueryDTO>> shapes = new ArrayList<>();
+        for (String sortField : List.of("name", "currentMembers", "establishedDate", "activitiesCount")) {
+            shapes.add(dto -> dto.setSortField(sortField));
+            shapes.add(dto -> {
+                dto.setSortField(sortField);
+                dto.setStatus("active");
+            });
+        }
+        shapes.add(dto -> dto.setCategory("art"));
+        shapes.add(dto -> {
+            dto.setStatus("active");
+            dto.setCategory("art");
+            dto.setSortField("currentMembers");
+            dto.setSortOrder("desc");
+        });
+        shapes.add(dto -> {
+            dto.setStartDate(LocalDate.of(2005, 1, 1));
+            dto.setEndDate(LocalDate.of(2006, 1, 1));
+        });
+        shapes.add(dto -> {
+            dto.setMinMembers(50);
+            dto.setMaxMembers(100);
+        });
+        shapes.add(dto -> dto.setOnlyActive(true));
+        // 负责人包含匹配（ACCEPTED_FULL_SCANS 中的例外）
+        shapes.add(dto -> dto.setPresident("负责人1"));
+        shapes.add(dto -> {
+            dto.setPresident("负责人1");
+            dto.setStatus("active");
+        });
+        shapes.add(dto -> dto.setKeyword("社团"));
+        // 校区范围的查询
+        shapes.add(dto -> dto.setCampus("校区1"));
+        shapes.add(dto -> {
+            dto.setCampus("校区1");
+            dto.setStatus("active");
+            dto.setCategory("art");
+            dto.setSortField("currentMembers");
+        });
+        return shapes;
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource && !(bean instanceof RecordingDataSource)
+                            ? new RecordingDataSource((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * 记录所有 SELECT 语句及其绑定参数，用于之后重放 EXPLAIN
+     */
+    static class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private static Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if ("prepareStatement".equals(method.getName()) && result instanceof PreparedStatement
+                                && ((String) args[0]).trim().toLowerCase().startsWith("select")) {
+                            return record((PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement record(PreparedStatement statement, String sql) {
+            RecordedQuery query = new RecordedQuery(sql);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            query.bind((Integer) args[0], args[1]);
+                        } else if (name.equals("executeQuery") || name.equals("execute")) {
+                            RECORDED.add(query.copy());
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    static class RecordedQuery {
+        private final String sql;
+        private final TreeMap<Integer, Object> params = new TreeMap<>();
+
+        RecordedQuery(String sql) {
+            this.sql = sql;
+        }
+
+        void bind(int index, Object value) {
+            params.put(index, value);
+        }
+
+        Object[] params() {
+            return params.values().toArray();
+        }
+
+        // '%x%' 形式的关键词；负责人前缀 'x%' 和占位 '%' 不算
+        boolean isKeywordContainsSearch() {
+            return params.values().stream().anyMatch(value -> value instanceof String text
+                    && text.length() > 2 && text.startsWith("%") && text.endsWith("%"));
+        }
+
+        boolean isPresidentContainsSearch() {
+            return sql.toLowerCase().matches("(?s).*lower\\(\\w+\\.president\\) like \\? escape.*")
+                    && isKeywordContainsSearch();
+        }
+
+        RecordedQuery copy() {
+            RecordedQuery copy = new RecordedQuery(sql);
+            copy.params.putAll(params);
+            return copy;
+        }
+    }
+}
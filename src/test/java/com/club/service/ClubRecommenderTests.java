@@ -0,0 +1,152 @@
+package com.club.service;
+
+import com.club.dto.ClubChangeEvent;
+import com.club.dto.SimilarClubDTO;
+import com.club.repository.ClubRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClubRecommenderTests {
+
+    private ClubRepository clubRepository;
+    private ClubRecommender recommender;
+
+    @BeforeEach
+    void setUp() {
+        clubRepository = mock(ClubRepository.class);
+        when(clubRepository.findRecommendationRows()).thenReturn(List.of(
+                new Object[]{1L, "计算机协会", "academic", "编程,算法", "校本部", "学习编程与算法竞赛"},
+                new Object[]{2L, "ACM 社", "academic", "算法", "校本部", "算法竞赛训练"},
+                new Object[]{3L, "篮球社", "sports", "篮球", "东校区", "篮球训练与比赛"},
+                new Object[]{4L, "足球社", "sports", "足球", "东校区", "足球训练与比赛"}));
+        // 更新队列直接在调用线程执行，断言时变更已生效
+        recommender = new ClubRecommender(clubRepository, 2, 2, Runnable::run);
+        recommender.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recommender.shutdown();
+    }
+
+    @Test
+    void ranksClubsSharingFeaturesFirst() {
+        assertEquals(List.of(2L), ids(1L, 1));
+        assertEquals(4L, ids(3L, 2).get(0));
+        assertTrue(recommender.similarTo(1L, 5).get(0).getScore() > 0.5);
+        assertTrue(recommender.similarTo(99L, 5).isEmpty());
+    }
+
+    @Test
+    void recomputesAffectedNeighborhoodsOnChange() {
+        // 篮球社改为学术类算法社团，进入计算机协会的邻居，并从足球社的第一位移出
+        when(clubRepository.findRecommendationRowsByIds(any())).thenReturn(List.<Object[]>of(
+                new Object[]{3L, "算法协会", "academic", "编程,算法", "校本部", "编程与算法竞赛"}));
+        recommender.onClubChange(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(3L), Map.of()));
+
+        assertEquals(3L, ids(1L, 1).get(0));
+        assertEquals("算法协会", recommender.similarTo(1L, 1).get(0).getName());
+        assertFalse(ids(4L, 1).contains(3L));
+
+        recommender.onClubChange(ClubChangeEvent.of(ClubChangeEvent.DELETED, List.of(3L), Map.of()));
+        assertFalse(ids(1L, 5).contains(3L));
+        assertTrue(recommender.similarTo(3L, 5).isEmpty());
+    }
+
+    @Test
+    void documentFrequencyStaysExactAcrossUpdates() {
+        // "活动"出现在所有简介里，IDF 为 0，不进入向量；更新时仍要按原始特征扣减文档频率
+        List<Object[]> rows = List.of(
+                new Object[]{1L, "书法社", "art", "书法", "校本部", "书法活动"},
+                new Object[]{2L, "摄影社", "art", "摄影", "校本部", "摄影活动"});
+        when(clubRepository.findRecommendationRows()).thenReturn(rows);
+        when(clubRepository.findRecommendationRowsByIds(any())).thenReturn(List.<Object[]>of(rows.get(0)));
+        recommender.rebuild();
+        Map<?, ?> expected = Map.copyOf(documentFrequency());
+
+        for (int i = 0; i < 3; i++) {
+            recommender.onClubChange(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(1L), Map.of()));
+        }
+        assertEquals(expected, documentFrequency());
+    }
+
+    @Test
+    void remoteEventWithoutIdsRebuildsModel() {
+        // 其他节点一次导入超过日志上限的社团，失效日志只带类型不带 ID
+        when(clubRepository.findRecommendationRows()).thenReturn(List.of(
+                new Object[]{1L, "计算机协会", "academic", "编程,算法", "校本部", "学习编程与算法竞赛"},
+                new Object[]{2L, "ACM 社", "academic", "算法", "校本部", "算法竞赛训练"},
+                new Object[]{5L, "算法研究会", "academic", "编程,算法", "校本部", "编程与算法竞赛"}));
+        recommender.onClubChange(ClubChangeEvent.remote(ClubChangeEvent.CREATED, List.of()));
+
+        assertEquals(5L, ids(1L, 1).get(0));
+        assertTrue(recommender.similarTo(3L, 5).isEmpty());
+    }
+
+    @Test
+    void changesAreAppliedOffTheCommittingThread() throws Exception {
+        ClubRecommender async = new ClubRecommender(clubRepository, 2, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> loadedOn = new CompletableFuture<>();
+        when(clubRepository.findRecommendationRowsByIds(any())).thenAnswer(invocation -> {
+            loadedOn.complete(Thread.currentThread().getName());
+            release.await();
+            return List.of();
+        });
+        try {
+            // 查询被挡住时事件监听仍立即返回
+            async.onClubChange(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(1L), Map.of()));
+            assertEquals("club-recommend-updater", loadedOn.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            async.shutdown();
+        }
+    }
+
+    @Test
+    void largeChangeFallsBackToFullRebuild() {
+        ReflectionTestUtils.setField(recommender, "incrementalMaxChanges", 2);
+        recommender.onClubChange(ClubChangeEvent.of(ClubChangeEvent.CREATED, List.of(1L, 2L, 3L), Map.of()));
+
+        verify(clubRepository, never()).findRecommendationRowsByIds(any());
+        verify(clubRepository, times(2)).findRecommendationRows();
+        assertEquals(List.of(2L), ids(1L, 1));
+    }
+
+    @Test
+    void negativeLimitReturnsNothing() {
+        assertTrue(recommender.similarTo(1L, -1).isEmpty());
+    }
+
+    @Test
+    void splitsChineseIntoBigramsAndLatinIntoWords() {
+        assertEquals(List.of("算法", "法竞", "竞赛", "acm", "社"), ClubRecommender.terms("算法竞赛 ACM 社"));
+    }
+
+    private Map<?, ?> documentFrequency() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(ReflectionTestUtils.getField(recommender, "model"), "documentFrequency");
+    }
+
+    private List<Long> ids(Long clubId, int limit) {
+        return recommender.similarTo(clubId, limit).stream().map(SimilarClubDTO::getClubId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.club.service;
+
+import com.club.dto.ClubChangeEvent;
+import com.club.dto.SuggestionDTO;
+import com.club.repository.ClubRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClubSuggesterTests {
+
+    private ClubRepository clubRepository;
+    private ClubSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        clubRepository = mock(ClubRepository.class);
+        when(clubRepository.findSuggestionRows()).thenReturn(List.of(
+                new Object[]{1L, "计算机协会", "张三", 120},
+                new Object[]{2L, "篮球社", "李四", 80},
+                new Object[]{3L, "吉他社", "张三", 200},
+                new Object[]{4L, "Java 学习小组", "王五", 30}));
+        suggester = new ClubSuggester(clubRepository);
+        suggester.rebuild();
+    }
+
+    @Test
+    void matchesOriginalTextPinyinAndInitials() {
+        assertEquals(List.of("计算机协会"), names("计算"));
+        assertEquals(List.of("计算机协会"), names("jisuanji"));
+        assertEquals(List.of("篮球社"), names("lqs"));
+        assertEquals(List.of("Java 学习小组"), names("javaxx"));
+    }
+
+    @Test
+    void ranksByMemberCount() {
+        // 吉他社(200) 与 计算机协会(120) 首字母都是 j
+        assertEquals(List.of("吉他社", "计算机协会", "Java 学习小组"), names("j"));
+        // 张三名下两个社团合计 320 人，排在最前
+        assertEquals("张三", suggester.suggestPresidents("", 10).get(0));
+        assertEquals(List.of("张三"), suggester.suggestPresidents("zs", 10));
+        assertTrue(suggester.suggestClubs("j", -1).isEmpty());
+        assertTrue(suggester.suggestPresidents("", -1).isEmpty());
+    }
+
+    @Test
+    void appliesIncrementalChanges() {
+        when(clubRepository.findSuggestionRowsByIds(any())).thenReturn(List.<Object[]>of(
+                new Object[]{2L, "街舞社", "李四", 500}));
+        suggester.onClubChange(ClubChangeEvent.of(ClubChangeEvent.UPDATED, List.of(2L), Map.of()));
+        assertTrue(names("lqs").isEmpty());
+        assertEquals("街舞社", names("j").get(0));
+
+        suggester.onClubChange(ClubChangeEvent.of(ClubChangeEvent.DELETED, List.of(1L, 3L), Map.of()));
+        assertEquals(List.of("街舞社", "Java 学习小组"), names("j"));
+        assertTrue(suggester.suggestPresidents("张", 10).isEmpty());
+    }
+
+    @Test
+    void remoteEventWithoutIdsRebuildsIndex() {
+        when(clubRepository.findSuggestionRows()).thenReturn(List.<Object[]>of(
+                new Object[]{5L, "围棋社", "赵六", 60}));
+        suggester.onClubChange(ClubChangeEvent.remote(ClubChangeEvent.CREATED, List.of()));
+        assertEquals(List.of("围棋社"), names("wq"));
+        assertTrue(names("j").isEmpty());
+    }
+
+    private List<String> names(String keyword) {
+        return suggester.suggestClubs(keyword, 10).stream()
+                .map(SuggestionDTO::getText)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,131 @@
+package com.club.service;
+
+import com.club.entity.Club;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class ClubUpsertImporterTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private ClubUpsertImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:upsert;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS club");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS id_generator");
+        jdbcTemplate.execute("CREATE TABLE club (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE, "
+                + "category VARCHAR(255), description TEXT, president VARCHAR(255), contact VARCHAR(255), "
+                + "campus VARCHAR(255), established_date DATE, current_members INT, max_members INT, "
+                + "status VARCHAR(255), activities_count INT, version BIGINT NOT NULL DEFAULT 0, "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP, deleted_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE id_generator (seq_name VARCHAR(255) PRIMARY KEY, next_val BIGINT)");
+        jdbcTemplate.update("INSERT INTO id_generator VALUES ('club', 100)");
+        jdbcTemplate.update("INSERT INTO club (id, name, category, president, campus, established_date, current_members, "
+                + "max_members, status, activities_count, deleted_at) VALUES "
+                + "(1, '篮球社', 'sports', '李四', '东校区', '2019-09-01', 80, 100, 'active', 3, NULL), "
+                + "(2, '吉他社', 'art', '王五', '西校区', NULL, 20, 100, 'inactive', 0, NULL), "
+                + "(3, '旧社团', 'art', '赵六', '西校区', NULL, 0, 100, 'active', 0, CURRENT_TIMESTAMP)");
+
+        importer = new ClubUpsertImporter(new NamedParameterJdbcTemplate(jdbcTemplate),
+                new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(importer, "batchSize", 2);
+    }
+
+    @Test
+    void insertsNewUpdatesChangedAndSkipsUnchangedRows() {
+        ClubUpsertImporter.Result result = importer.upsert(List.of(
+                club("篮球社", "sports", "李四", "东校区", LocalDate.of(2019, 9, 1)),
+                club("吉他社", "art", "钱七", "西校区", null),
+                club("摄影协会", "art", "孙八", "东校区", null),
+                club("动漫社", "interest", "周九", "东校区", null),
+                club("旧社团", "art", "赵六", "西校区", null),
+                club(" ", "art", "无名", "东校区", null)));
+
+        assertEquals(2, result.getInserted().size());
+        assertEquals(1, result.getUpdated().size());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(2, result.getSkipped());
+
+        // 只覆盖导入列，成员数和状态不变，版本号递增
+        assertEquals("钱七", jdbcTemplate.queryForObject("SELECT president FROM club WHERE id = 2", String.class));
+        assertEquals(20, jdbcTemplate.queryForObject("SELECT current_members FROM club WHERE id = 2", Integer.class));
+        assertEquals("inactive", jdbcTemplate.queryForObject("SELECT status FROM club WHERE id = 2", String.class));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM club WHERE id = 2", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM club WHERE id = 1", Long.class));
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject("SELECT current_members FROM club WHERE id = 3", Integer.class));
+
+        // 新 ID 从 id_generator 的下一段取
+        assertEquals(List.of(101L, 102L), jdbcTemplate.queryForList(
+                "SELECT id FROM club WHERE name IN ('摄影协会', '动漫社') ORDER BY id", Long.class));
+        assertEquals(102L, jdbcTemplate.queryForObject("SELECT next_val FROM id_generator", Long.class));
+
+        // 再导入一遍没有任何写入
+        ClubUpsertImporter.Result again = importer.upsert(List.of(
+                club("吉他社", "art", "钱七", "西校区", null),
+                club("摄影协会", "art", "孙八", "东校区", null)));
+        assertEquals(0, again.getInserted().size() + again.getUpdated().size());
+        assertEquals(2, again.getUnchanged());
+    }
+
+    @Test
+    void clubCreatedAfterSnapshotIsReclassifiedInsteadOfOverwritten() {
+        // 读取已有社团之后、插入之前，另一个事务创建了同名社团
+        NamedParameterJdbcTemplate named = spy(new NamedParameterJdbcTemplate(jdbcTemplate));
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            if (raced.compareAndSet(false, true)) {
+                jdbcTemplate.update("INSERT INTO club (id, name, category, president, current_members, status, version) "
+                        + "VALUES (50, '动漫社', 'interest', '吴十', 12, 'active', 0)");
+            }
+            return null;
+        }).when(named).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        importer = new ClubUpsertImporter(named, new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        ReflectionTestUtils.setField(importer, "batchSize", 2);
+
+        ClubUpsertImporter.Result result = importer.upsert(List.of(
+                club("摄影协会", "art", "孙八", "东校区", null),
+                club("动漫社", "interest", "周九", "东校区", null)));
+
+        assertEquals(List.of("摄影协会"), result.getInserted().stream().map(Club::getName).toList());
+        assertEquals(List.of(50L), result.getUpdated().stream().map(Club::getId).toList());
+        assertEquals("吴十", result.getPrevious().get(50L).get("president"));
+
+        // 冲突的那条插入语句整体未生效，摄影协会用原来分配的 ID 重新插入；动漫社只更新导入列
+        assertEquals(101L, jdbcTemplate.queryForObject("SELECT id FROM club WHERE name = '摄影协会'", Long.class));
+        assertEquals("周九", jdbcTemplate.queryForObject("SELECT president FROM club WHERE id = 50", String.class));
+        assertEquals(12, jdbcTemplate.queryForObject("SELECT current_members FROM club WHERE id = 50", Integer.class));
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM club", Integer.class));
+    }
+
+    private Club club(String name, String category, String president, String campus, LocalDate establishedDate) {
+        Club club = new Club();
+        club.setName(name);
+        club.setCategory(category);
+        club.setDescription("");
+        club.setPresident(president);
+        club.setContact("");
+        club.setCampus(campus);
+        club.setEstablishedDate(establishedDate);
+        return club;
+    }
+}
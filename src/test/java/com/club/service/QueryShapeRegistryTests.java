@@ -0,0 +1,38 @@
+package com.club.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryShapeRegistryTests {
+
+    @Test
+    void countsRepeatedShapesAsHits() {
+        QueryShapeRegistry registry = new QueryShapeRegistry();
+        registry.record("list:100000:name,asc");
+        registry.record("list:100000:name,asc");
+        registry.record("list:100000:name,asc");
+        registry.record("quick:010:name: ASC");
+
+        assertEquals(2, registry.distinctShapes());
+        assertEquals(0.5, registry.hitRate(), 1e-9);
+        Map<?, ?> shapes = (Map<?, ?>) registry.snapshot().get("shapes");
+        assertEquals("list:100000:name,asc", shapes.keySet().iterator().next());
+    }
+
+    @Test
+    void stopsTrackingNewShapesAtLimit() {
+        QueryShapeRegistry registry = new QueryShapeRegistry();
+        ReflectionTestUtils.setField(registry, "maxTracked", 2);
+        for (int i = 0; i < 10; i++) {
+            registry.record("shape" + i);
+        }
+
+        assertEquals(2, registry.distinctShapes());
+        assertEquals(8L, registry.snapshot().get("untracked"));
+        assertEquals(0.0, registry.hitRate(), 1e-9);
+    }
+}
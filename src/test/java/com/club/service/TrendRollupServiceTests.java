@@ -0,0 +1,215 @@
+package com.club.service;
+
+import com.club.dto.TrendPointDTO;
+import com.club.entity.Club;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TrendRollupServiceTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private TrendRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:rollup;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS stat_rollup");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS club");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS activity");
+        jdbcTemplate.execute("CREATE TABLE stat_rollup (metric VARCHAR(32) NOT NULL, bucket DATE NOT NULL, "
+                + "dimension VARCHAR(64) NOT NULL DEFAULT '', metric_value BIGINT NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (metric, bucket, dimension))");
+        jdbcTemplate.execute("CREATE TABLE club (id BIGINT PRIMARY KEY, category VARCHAR(50), "
+                + "current_members INT, created_at TIMESTAMP, deleted_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE activity (id BIGINT PRIMARY KEY, activity_type VARCHAR(50), activity_time TIMESTAMP)");
+
+        jdbcTemplate.update("INSERT INTO club VALUES (1, 'academic', 10, '2024-01-05 10:00:00', NULL), "
+                + "(2, 'academic', 20, '2024-01-20 10:00:00', NULL), (3, 'sports', 5, '2024-02-01 08:00:00', NULL), "
+                + "(4, 'sports', 7, '2024-02-02 08:00:00', '2024-02-03 08:00:00')");
+        // 2024-03-04 是周一
+        jdbcTemplate.update("INSERT INTO activity VALUES (1, 'sports', '2024-03-04 09:00:00'), "
+                + "(2, 'sports', '2024-03-10 20:00:00'), (3, 'art', '2024-03-11 09:00:00')");
+
+        rollupService = new TrendRollupService(jdbcTemplate, transactionManager);
+        rollupService.backfillIfEmpty();
+    }
+
+    @Test
+    void backfillFoldsDailyCountsIntoBuckets() {
+        assertEquals(List.of(
+                        new TrendPointDTO(LocalDate.of(2024, 1, 1), "academic", 2L),
+                        new TrendPointDTO(LocalDate.of(2024, 2, 1), "sports", 1L)),
+                rollupService.getTrend(TrendRollupService.CLUBS_CREATED, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 1), null));
+        assertEquals(List.of(
+                        new TrendPointDTO(LocalDate.of(2024, 3, 4), "sports", 2L),
+                        new TrendPointDTO(LocalDate.of(2024, 3, 11), "art", 1L)),
+                rollupService.getTrend(TrendRollupService.ACTIVITIES, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), null));
+
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        assertEquals(List.of(new TrendPointDTO(month, "", 35L)),
+                rollupService.getTrend(TrendRollupService.MEMBERS_TOTAL, month, month, null));
+    }
+
+    @Test
+    void writesUpdateRollupsIncrementally() {
+        Club club = new Club();
+        club.setCategory("sports");
+        club.setCurrentMembers(0);
+        club.setCreatedAt(LocalDateTime.of(2024, 2, 15, 12, 0));
+        rollupService.recordClubCreated(club);
+
+        club.setCategory("art");
+        rollupService.recordCategoryChanged(club, "sports");
+
+        assertEquals(List.of(
+                        new TrendPointDTO(LocalDate.of(2024, 2, 1), "art", 1L),
+                        new TrendPointDTO(LocalDate.of(2024, 2, 1), "sports", 1L)),
+                rollupService.getTrend(TrendRollupService.CLUBS_CREATED, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 1), null));
+
+        Club deleted = new Club();
+        deleted.setCategory("academic");
+        deleted.setCurrentMembers(10);
+        deleted.setCreatedAt(LocalDateTime.of(2024, 1, 5, 10, 0));
+        rollupService.recordClubDeleted(deleted);
+
+        assertEquals(List.of(new TrendPointDTO(LocalDate.of(2024, 1, 1), "academic", 1L)),
+                rollupService.getTrend(TrendRollupService.CLUBS_CREATED, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1), "academic"));
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        assertEquals(25L, rollupService.getTrend(TrendRollupService.MEMBERS_TOTAL, month, month, null).get(0).getValue());
+    }
+
+    @Test
+    void bulkWritesAggregateIntoOneStatement() {
+        JdbcTemplate counting = spy(jdbcTemplate);
+        TrendRollupService bulkService = new TrendRollupService(counting, transactionManager);
+        List<Club> clubs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            clubs.add(club(i % 2 == 0 ? "sports" : "art", LocalDateTime.of(2024, 2, 1 + i % 28, 12, 0), 1));
+        }
+        bulkService.recordClubsCreated(clubs);
+
+        // 一条多行 upsert 写趋势桶，一条更新成员总数快照
+        verify(counting, times(2)).update(anyString(), any(Object[].class));
+        assertEquals(List.of(
+                        new TrendPointDTO(LocalDate.of(2024, 2, 1), "art", 150L),
+                        new TrendPointDTO(LocalDate.of(2024, 2, 1), "sports", 151L)),
+                rollupService.getTrend(TrendRollupService.CLUBS_CREATED, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 1), null));
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        assertEquals(335L, rollupService.getTrend(TrendRollupService.MEMBERS_TOTAL, month, month, null).get(0).getValue());
+
+        clubs.get(0).setId(1L);
+        clubs.get(0).setCategory("art");
+        bulkService.recordCategoriesChanged(List.of(clubs.get(0)), Map.of(1L, "sports"));
+        bulkService.recordClubsDeleted(clubs.subList(100, 300));
+        assertEquals(List.of(
+                        new TrendPointDTO(LocalDate.of(2024, 2, 1), "art", 51L),
+                        new TrendPointDTO(LocalDate.of(2024, 2, 1), "sports", 50L)),
+                rollupService.getTrend(TrendRollupService.CLUBS_CREATED, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 1), null));
+    }
+
+    @Test
+    void recomputeReplacesDriftedBucketsWithinRange() {
+        jdbcTemplate.update("UPDATE stat_rollup SET metric_value = 99 WHERE metric = 'clubs_created'");
+
+        rollupService.recompute(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 11));
+
+        assertEquals(List.of(
+                        new TrendPointDTO(LocalDate.of(2024, 1, 1), "academic", 99L),
+                        new TrendPointDTO(LocalDate.of(2024, 2, 1), "sports", 1L)),
+                rollupService.getTrend(TrendRollupService.CLUBS_CREATED, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 1), null));
+    }
+
+    @Test
+    void failedCompactionKeepsPreviousBuckets() {
+        // 本月创建的社团落在压缩范围内
+        jdbcTemplate.update("INSERT INTO club VALUES (5, 'art', 3, CURRENT_TIMESTAMP, NULL)");
+        rollupService.recompute(null, null, null, null);
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        List<TrendPointDTO> before = rollupService.getTrend(TrendRollupService.CLUBS_CREATED, month, month, null);
+        assertEquals(1, before.size());
+
+        // 经 Spring 容器里的 Bean 调用，删除旧桶之后的插入失败
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RollupConfig.class)) {
+            JdbcTemplate failing = context.getBean(JdbcTemplate.class);
+            doThrow(new DataAccessResourceFailureException("写入失败")).when(failing).batchUpdate(anyString(), anyList());
+            TrendRollupService bean = context.getBean(TrendRollupService.class);
+            assertThrows(DataAccessResourceFailureException.class, bean::compact);
+        }
+
+        // 删除随事务回滚，旧桶仍在
+        assertEquals(before, rollupService.getTrend(TrendRollupService.CLUBS_CREATED, month, month, null));
+        assertEquals(38L, rollupService.getTrend(TrendRollupService.MEMBERS_TOTAL, month, month, null).get(0).getValue());
+    }
+
+    private static Club club(String category, LocalDateTime createdAt, int members) {
+        Club club = new Club();
+        club.setCategory(category);
+        club.setCreatedAt(createdAt);
+        club.setCurrentMembers(members);
+        return club;
+    }
+
+    @Test
+    void unknownMetricIsRejected() {
+        assertThrows(RuntimeException.class, () -> rollupService.getTrend("unknown", null, null, null));
+    }
+
+    @Configuration
+    static class RollupConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:rollup;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return spy(new JdbcTemplate(dataSource));
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        TrendRollupService trendRollupService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+            return new TrendRollupService(jdbcTemplate, transactionManager);
+        }
+
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.club.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadSweeperTests {
+
+    @TempDir
+    Path tempDir;
+
+    private Path uploads;
+    private Path quarantine;
+    private UploadSweeper sweeper;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:upload_gc;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS club");
+        jdbcTemplate.execute("CREATE TABLE club (id BIGINT PRIMARY KEY, logo_url VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO club VALUES (1, '/uploads/club_logos/used.png')");
+
+        uploads = tempDir.resolve("uploads");
+        quarantine = tempDir.resolve("quarantine");
+        Files.createDirectories(uploads.resolve("club_logos"));
+        writeOld("club_logos/used.png", "used");
+        writeOld("club_logos/orphan.png", "orphan");
+        Files.writeString(uploads.resolve("club_logos/fresh.png"), "fresh");
+
+        FileService fileService = new FileService();
+        ReflectionTestUtils.setField(fileService, "uploadDir", uploads.toString());
+
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new UploadSweeper(new NamedParameterJdbcTemplate(dataSource), fileService, meterRegistry);
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "directories", List.of("club_logos"));
+        ReflectionTestUtils.setField(sweeper, "quarantineDir", quarantine.toString());
+        ReflectionTestUtils.setField(sweeper, "graceHours", 24L);
+        ReflectionTestUtils.setField(sweeper, "quarantineDays", 7L);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 1);
+        ReflectionTestUtils.setField(sweeper, "batchPauseMs", 0L);
+    }
+
+    @Test
+    void quarantinesOnlyUnreferencedFilesPastGracePeriod() {
+        sweeper.sweep();
+
+        assertTrue(Files.exists(uploads.resolve("club_logos/used.png")));
+        assertTrue(Files.exists(uploads.resolve("club_logos/fresh.png")));
+        assertFalse(Files.exists(uploads.resolve("club_logos/orphan.png")));
+        assertTrue(Files.exists(quarantine.resolve("club_logos/orphan.png")));
+        assertEquals(1.0, meterRegistry.get("club.uploads.quarantined").counter().count());
+        // 刚进入隔离，不会被删除
+        assertEquals(0.0, meterRegistry.get("club.uploads.reclaimed").counter().count());
+    }
+
+    @Test
+    void deletesQuarantinedFilesAfterRetention() throws Exception {
+        sweeper.sweep();
+        Files.setLastModifiedTime(quarantine.resolve("club_logos/orphan.png"),
+                FileTime.from(Instant.now().minus(Duration.ofDays(8))));
+
+        sweeper.sweep();
+
+        assertFalse(Files.exists(quarantine.resolve("club_logos/orphan.png")));
+        assertEquals(6.0, meterRegistry.get("club.uploads.reclaimed").counter().count());
+    }
+
+    private void writeOld(String relative, String content) throws Exception {
+        Path file = Files.writeString(uploads.resolve(relative), content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+    }
+}
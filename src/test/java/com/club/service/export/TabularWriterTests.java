@@ -0,0 +1,66 @@
+package com.club.service.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TabularWriterTests {
+
+    @Test
+    void csvQuotesOnlyFieldsThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularWriter writer = ExportFormat.CSV.open(out)) {
+            writer.writeHeader(List.of("id", "name", "description"));
+            writer.writeRow(new Object[]{1L, "篮球社", "周三, 周五训练"});
+            writer.writeRow(new Object[]{2L, "他说\"你好\"", "第一行\n第二行"});
+            writer.writeRow(new Object[]{3L, null, "回车\r结尾"});
+        }
+
+        byte[] bytes = out.toByteArray();
+        // UTF-8 BOM 只在开头出现一次
+        assertArrayEquals(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, Arrays.copyOf(bytes, 3));
+        assertEquals("\uFEFF"
+                        + "id,name,description\r\n"
+                        + "1,篮球社,\"周三, 周五训练\"\r\n"
+                        + "2,\"他说\"\"你好\"\"\",\"第一行\n第二行\"\r\n"
+                        + "3,,\"回车\r结尾\"\r\n",
+                new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularWriter writer = ExportFormat.NDJSON.open(out)) {
+            writer.writeHeader(List.of("id", "name", "establishedDate", "members"));
+            writer.writeRow(new Object[]{1L, "第一行\n第二行", LocalDate.of(2019, 9, 1), 30});
+            writer.writeRow(new Object[]{2L, "\"引号\"", null, null});
+        }
+
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.endsWith("\n"));
+        // 字段里的换行被转义，每条记录正好一行，没有分隔空格
+        String[] lines = text.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{\"id\":2,"), lines[1]);
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode first = mapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("第一行\n第二行", first.get("name").asText());
+        assertEquals("2019-09-01", first.get("establishedDate").asText());
+        assertEquals(30, first.get("members").asInt());
+        JsonNode second = mapper.readTree(lines[1]);
+        assertEquals("\"引号\"", second.get("name").asText());
+        assertTrue(second.get("establishedDate").isNull());
+    }
+}
@@ -0,0 +1,178 @@
+package com.club.config;
+
+import com.club.ClubManagementApplication;
+import com.club.entity.Club;
+import com.club.repository.ClubRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 平台线程 / 虚拟线程模式压测对比
+ * 两种模式各启动一次完整应用（内存 H2，关闭查询缓存和近端缓存，请求都真正访问数据库），
+ * 逐级增加并发客户端请求快速搜索接口（交互读舱壁），输出每一级的吞吐量、p99 延迟和 429/503 拒绝数，
+ * 并报告舱壁从哪一级并发开始拒绝。
+ * mvn -Pjava21 test -Dtest=VirtualThreadBenchmarkTests -Dbenchmark=true [-Dbenchmark.levels=16,64,256,1024]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadBenchmarkTests {
+
+    private static final int[] LEVELS = Arrays.stream(System.getProperty("benchmark.levels", "16,64,256,1024").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.requests", 20);
+    private static final int CLUBS = Integer.getInteger("benchmark.clubs", 2000);
+
+    @Test
+    void reportsWhereBulkheadsStartRejecting() throws Exception {
+        Map<String, List<Level>> results = new LinkedHashMap<>();
+        results.put("平台线程", run(false));
+        results.put("虚拟线程", run(true));
+
+        results.forEach((mode, levels) -> {
+            System.out.println(mode);
+            System.out.printf("%8s %10s %8s %8s %8s %8s%n", "并发", "req/s", "p99 ms", "200", "429", "503");
+            for (Level level : levels) {
+                System.out.printf("%8d %10.0f %8d %8d %8d %8d%n", level.clients, level.throughput, level.p99Ms,
+                        level.ok, level.queueFull, level.timedOut);
+            }
+            System.out.println("舱壁开始拒绝的并发: " + levels.stream().filter(Level::rejected)
+                    .map(level -> String.valueOf(level.clients)).findFirst().orElse("未出现"));
+        });
+
+        // 过载时只允许舱壁的快速失败，不应出现其他错误或连接失败
+        results.forEach((mode, levels) -> levels.forEach(level -> {
+            assertEquals(0, level.errors, mode + " 并发 " + level.clients + " 出现非舱壁错误");
+            assertTrue(level.ok > 0, mode + " 并发 " + level.clients + " 没有成功的请求");
+        }));
+    }
+
+    private List<Level> run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ClubManagementApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.defer-datasource-initialization=true",
+                "--spring.sql.init.mode=always",
+                "--spring.sql.init.schema-locations=classpath:db/benchmark-schema.sql",
+                "--app.query-cache.enabled=false",
+                "--app.near-cache.enabled=false",
+                "--app.warmup.enabled=false",
+                "--app.upload-gc.enabled=false",
+                "--app.threads.virtual.enabled=" + virtualThreads);
+        try {
+            seed(context.getBean(ClubRepository.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/clubs/quick-search?limit=20&keyword="
+                    + URLEncoder.encode("社团1", StandardCharsets.UTF_8));
+
+            List<Level> levels = new ArrayList<>();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient httpClient = HttpClient.newBuilder().executor(clients).build()) {
+                for (int level : LEVELS) {
+                    levels.add(measure(httpClient, clients, uri, level));
+                }
+            }
+            return levels;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void seed(ClubRepository clubRepository) {
+        String[] categories = {"academic", "art", "sports", "volunteer", "interest", "innovation"};
+        List<Club> clubs = new ArrayList<>(CLUBS);
+        for (int i = 0; i < CLUBS; i++) {
+            Club club = new Club();
+            club.setName("社团" + i);
+            club.setCategory(categories[i % categories.length]);
+            club.setPresident("负责人" + (i % 97));
+            club.setCampus("校区" + (i % 4));
+            club.setDescription("第 " + i + " 个社团的简介");
+            club.setCurrentMembers(i % 250);
+            clubs.add(club);
+        }
+        clubRepository.saveAll(clubs);
+    }
+
+    private static Level measure(HttpClient httpClient, ExecutorService clients, URI uri, int concurrency)
+            throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).build();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger queueFull = new AtomicInteger();
+        AtomicInteger timedOut = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                    long begin = System.nanoTime();
+                    try {
+                        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 200) {
+                            ok.incrementAndGet();
+                            latencies.add((System.nanoTime() - begin) / 1_000_000);
+                        } else if (status == 429) {
+                            queueFull.incrementAndGet();
+                        } else if (status == 503) {
+                            timedOut.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.isEmpty() ? 0 : sorted.get(Math.max(0, (int) Math.ceil(sorted.size() * 0.99) - 1));
+        return new Level(concurrency, ok.get() / seconds, p99, ok.get(), queueFull.get(), timedOut.get(), errors.get());
+    }
+
+    // 吞吐量只统计成功的请求
+    private record Level(int clients, double throughput, long p99Ms, int ok, int queueFull, int timedOut, int errors) {
+
+        boolean rejected() {
+            return queueFull > 0 || timedOut > 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+-- 压测用内存 H2：实体表由 Hibernate 建出，这里只补启动和请求路径上用到的非实体表
+CREATE TABLE cache_invalidation_log (
+    id         BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    origin     VARCHAR(64) NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    club_id    BIGINT,
+    club_ids   TEXT,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE TABLE stat_rollup (
+    metric       VARCHAR(32) NOT NULL,
+    bucket       DATE        NOT NULL,
+    dimension    VARCHAR(64) NOT NULL DEFAULT '',
+    metric_value BIGINT      NOT NULL DEFAULT 0,
+    updated_at   TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (metric, bucket, dimension)
+);
+
+CREATE TABLE club_audit_log (
+    id         BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    club_id    BIGINT      NOT NULL,
+    action     VARCHAR(16) NOT NULL,
+    operator   VARCHAR(64) NOT NULL,
+    changes    TEXT        NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL
+);
+
+CREATE TABLE club_member (
+    id         BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    club_id    BIGINT      NOT NULL,
+    student_id BIGINT      NOT NULL,
+    role       VARCHAR(16) NOT NULL DEFAULT 'member',
+    joined_at  TIMESTAMP(3) NOT NULL,
+    UNIQUE (club_id, student_id)
+);
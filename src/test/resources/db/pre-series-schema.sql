@@ -0,0 +1,47 @@
+-- 引入 Flyway 之前 ddl-auto=update 根据旧实体（IDENTITY 主键、无 version 列）建出的表结构
+CREATE TABLE club (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    activities_count INT,
+    campus           VARCHAR(255),
+    category         VARCHAR(255),
+    contact          VARCHAR(255),
+    created_at       DATETIME(6),
+    current_members  INT,
+    description      TEXT,
+    established_date DATE,
+    logo_url         VARCHAR(255),
+    max_members      INT,
+    name             VARCHAR(255) NOT NULL,
+    president        VARCHAR(255),
+    qq_group         VARCHAR(255),
+    status           VARCHAR(255),
+    tags             VARCHAR(255),
+    updated_at       DATETIME(6),
+    wechat_group     VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UK_club_name_legacy UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE activity (
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    activity_time        DATETIME(6),
+    activity_type        VARCHAR(255),
+    club_id              BIGINT,
+    club_name            VARCHAR(255),
+    cover_image          VARCHAR(255),
+    created_at           DATETIME(6),
+    current_participants INT,
+    description          TEXT,
+    location             VARCHAR(255),
+    max_participants     INT,
+    organizer            VARCHAR(255),
+    status               VARCHAR(255),
+    title                VARCHAR(255) NOT NULL,
+    updated_at           DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO club (id, name, category, current_members, max_members, status, activities_count, created_at, updated_at)
+VALUES (7, '老社团', 'art', 12, 100, 'active', 1, NOW(6), NOW(6)),
+       (42, '老社团二', 'sports', 30, 100, 'active', 0, NOW(6), NOW(6));
+INSERT INTO activity (id, title, club_id, created_at) VALUES (15, '迎新晚会', 7, NOW(6));